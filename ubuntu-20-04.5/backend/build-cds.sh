@@ -0,0 +1,53 @@
+#!/bin/bash
+# Turns the Spring Boot fat jar into an exploded layout with an AppCDS archive.
+#
+#   mvn -Pfast-startup package -DskipTests && ./build-cds.sh
+#   java -XX:SharedArchiveFile=target/cds/app.jsa -Dspring.aot.enabled=true -jar target/cds/app.jar
+#
+# Classes loaded from nested jars can't be archived, so the jar is unpacked into
+# a thin app.jar whose manifest Class-Path points at lib/*.jar.
+
+set -e
+
+JAR=${1:-target/wedding-api-1.0.0.jar}
+OUT=${2:-target/cds}
+
+if [ ! -f "$JAR" ]; then
+    echo "❌ $JAR not found. Run: mvn -Pfast-startup package -DskipTests"
+    exit 1
+fi
+
+echo "📦 Unpacking $JAR into $OUT..."
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked" "$OUT/lib"
+(cd "$OUT/unpacked" && jar xf "$OLDPWD/$JAR")
+
+mv "$OUT"/unpacked/BOOT-INF/lib/*.jar "$OUT/lib/"
+# devtools must not be on a production classpath
+rm -f "$OUT"/lib/spring-boot-devtools-*.jar
+
+{
+    echo "Main-Class: com.wedding.api.WeddingApiApplication"
+    printf "Class-Path:"
+    for lib in "$OUT"/lib/*.jar; do
+        printf " \n lib/%s" "$(basename "$lib")"
+    done
+    echo
+} > "$OUT/MANIFEST.MF"
+jar cfm "$OUT/app.jar" "$OUT/MANIFEST.MF" -C "$OUT/unpacked/BOOT-INF/classes" .
+rm -rf "$OUT/unpacked" "$OUT/MANIFEST.MF"
+
+echo "🏋️  Training run to record loaded classes..."
+AOT_FLAG=""
+if jar tf "$OUT/app.jar" | grep -q "__ApplicationContextInitializer"; then
+    AOT_FLAG="-Dspring.aot.enabled=true"
+fi
+(cd "$OUT" && java -XX:ArchiveClassesAtExit=app.jsa $AOT_FLAG \
+    -Dwedding.cds.training-run=true \
+    -Dspring.profiles.active=cds-training \
+    -jar app.jar > training-run.log 2>&1) || {
+    echo "❌ Training run failed, see $OUT/training-run.log"
+    exit 1
+}
+
+echo "✅ CDS archive written to $OUT/app.jsa ($(du -h "$OUT/app.jsa" | cut -f1))"
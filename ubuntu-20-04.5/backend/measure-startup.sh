@@ -0,0 +1,42 @@
+#!/bin/bash
+# Compares startup time and first-request latency of the plain fat jar against
+# the AOT + AppCDS layout produced by build-cds.sh. Needs the database from
+# docker-compose to be reachable (defaults to localhost:5432).
+#
+#   mvn -Pfast-startup package -DskipTests && ./build-cds.sh && ./measure-startup.sh
+
+PORT=${PORT:-8090}
+RUNS=${RUNS:-3}
+FIRST_REQUEST=${FIRST_REQUEST:-/api/events/details}
+
+measure() {
+    local label=$1
+    local dir=$2
+    shift 2
+
+    for run in $(seq 1 "$RUNS"); do
+        local start=$(date +%s%N)
+        (cd "$dir" && exec java "$@" --server.port="$PORT" > /tmp/measure-startup.log 2>&1) &
+        local pid=$!
+
+        until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+            if ! kill -0 $pid 2> /dev/null; then
+                echo "❌ $label failed to start, see /tmp/measure-startup.log"
+                return 1
+            fi
+            sleep 0.1
+        done
+        local ready=$(date +%s%N)
+
+        local first=$(curl -s -o /dev/null -w "%{time_total}" "http://localhost:$PORT$FIRST_REQUEST")
+
+        echo "$label run $run: ready in $(( (ready - start) / 1000000 )) ms, first $FIRST_REQUEST in ${first}s"
+
+        kill $pid
+        wait $pid 2> /dev/null
+    done
+}
+
+echo "⏱️  Measuring startup ($RUNS runs each)..."
+measure "fat jar " target -jar wedding-api-1.0.0.jar
+measure "aot+cds " target/cds -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app.jar
@@ -0,0 +1,50 @@
+#!/bin/bash
+# Counts the StatsD datagrams the API sends under the same request load in the direct
+# (one line per meter update) and aggregated (per-step, batched) export modes, using
+# tools/StatsdSink.java as a stand-in for the Datadog agent. Needs the database from
+# docker-compose to be reachable (defaults to localhost:5432).
+#
+#   mvn package -DskipTests && ./measure-statsd.sh
+
+PORT=${PORT:-8090}
+STATSD_PORT=${STATSD_PORT:-18125}
+REQUESTS=${REQUESTS:-2000}
+WINDOW=${WINDOW:-45}
+TARGET=${TARGET:-/api/events/details}
+JAR=${JAR:-target/wedding-api-1.0.0.jar}
+
+measure() {
+    local mode=$1
+    shift
+
+    java tools/StatsdSink.java "$STATSD_PORT" "$WINDOW" > /tmp/measure-statsd-$mode.txt &
+    local sink=$!
+
+    java -jar "$JAR" --server.port="$PORT" \
+        --management.statsd.metrics.export.host=localhost \
+        --management.statsd.metrics.export.port="$STATSD_PORT" \
+        --wedding.metrics.statsd.mode="$mode" "$@" > /tmp/measure-statsd-app.log 2>&1 &
+    local app=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        if ! kill -0 $app 2> /dev/null; then
+            echo "❌ $mode failed to start, see /tmp/measure-statsd-app.log"
+            kill $sink 2> /dev/null
+            return 1
+        fi
+        sleep 0.5
+    done
+
+    for i in $(seq 1 "$REQUESTS"); do
+        curl -s -o /dev/null "http://localhost:$PORT$TARGET"
+    done
+
+    wait $sink
+    kill $app
+    wait $app 2> /dev/null
+    echo "$mode: $(tail -1 /tmp/measure-statsd-$mode.txt)"
+}
+
+echo "📡 $REQUESTS requests to $TARGET, datagrams counted for ${WINDOW}s per mode"
+measure direct --management.statsd.metrics.export.enabled=true
+measure aggregated --management.statsd.metrics.export.enabled=false
@@ -3,14 +3,22 @@ package com.wedding.api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class WeddingApiApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(WeddingApiApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(WeddingApiApplication.class, args);
+
+        // AppCDS training run (see build-cds.sh): exit once the context is up so the loaded classes get archived
+        if (Boolean.getBoolean("wedding.cds.training-run")) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
-} 
\ No newline at end of file
+}
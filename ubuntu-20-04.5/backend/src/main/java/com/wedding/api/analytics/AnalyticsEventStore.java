@@ -0,0 +1,146 @@
+package com.wedding.api.analytics;
+
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Buffers analytics events in memory and appends them to analytics_events in JDBC batches.
+// Recording never blocks the request: when the buffer is full the event is dropped and counted.
+// Events still buffered at shutdown are flushed; a crash loses at most one flush interval.
+// Events carry the wedding they were recorded for and are written to that wedding's shard.
+@Service
+@ConditionalOnProperty(name = "wedding.analytics.store.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsEventStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsEventStore.class);
+
+    public static final String PAGE_VIEW = "page_view";
+    public static final String FUNNEL_STEP = "funnel_step";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO analytics_events (occurred_at, kind, name, browser, guest_id, wedding_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_NAME_LENGTH = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${wedding.analytics.store.batch-size:500}")
+    private int batchSize;
+
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<Event> buffer;
+
+    public AnalyticsEventStore(MeterRegistry meterRegistry,
+                               @Value("${wedding.analytics.store.buffer-capacity:50000}") int bufferCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        Gauge.builder("wedding.analytics.events.buffered", buffer, BlockingQueue::size)
+                .description("Analytics events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void recordPageView(String page, String browser) {
+        record(PAGE_VIEW, page, browser, null);
+    }
+
+    public void recordFunnelStep(String step, Long guestId) {
+        record(FUNNEL_STEP, step, null, guestId);
+    }
+
+    private void record(String kind, String name, String browser, Long guestId) {
+        String normalized = name == null || name.isBlank() ? "unknown" : name.trim();
+        if (normalized.length() > MAX_NAME_LENGTH) {
+            normalized = normalized.substring(0, MAX_NAME_LENGTH);
+        }
+        if (!buffer.offer(new Event(LocalDateTime.now(), kind, normalized, browser, guestId, TenantContext.current()))) {
+            meterRegistry.counter("wedding.analytics.events.dropped", "kind", kind).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.analytics.store.flush-interval-ms:1000}")
+    public void flush() {
+        List<Event> drained = new ArrayList<>(batchSize);
+        while (buffer.drainTo(drained, batchSize) > 0) {
+            Map<String, List<Event>> byWedding = new LinkedHashMap<>();
+            for (Event event : drained) {
+                byWedding.computeIfAbsent(event.weddingId, ignored -> new ArrayList<>()).add(event);
+            }
+            drained.clear();
+            boolean failed = false;
+            for (Map.Entry<String, List<Event>> entry : byWedding.entrySet()) {
+                failed |= !TenantContext.callAs(entry.getKey(), () -> write(entry.getValue()));
+            }
+            if (failed) {
+                // Leave the rest of the buffer for the next tick
+                return;
+            }
+        }
+    }
+
+    // Returns false when the batch had to be dropped
+    private boolean write(List<Event> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+                statement.setTimestamp(1, Timestamp.valueOf(event.occurredAt));
+                statement.setString(2, event.kind);
+                statement.setString(3, event.name);
+                statement.setString(4, event.browser);
+                if (event.guestId != null) {
+                    statement.setLong(5, event.guestId);
+                } else {
+                    statement.setNull(5, java.sql.Types.BIGINT);
+                }
+                statement.setString(6, event.weddingId);
+            });
+            meterRegistry.counter("wedding.analytics.events.written").increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            // Analytics are best effort: a failed batch is dropped rather than retried forever
+            meterRegistry.counter("wedding.analytics.events.dropped", "kind", "write_failure").increment(batch.size());
+            logger.warn("Dropped {} analytics events: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private static class Event {
+        private final LocalDateTime occurredAt;
+        private final String kind;
+        private final String name;
+        private final String browser;
+        private final Long guestId;
+        private final String weddingId;
+
+        Event(LocalDateTime occurredAt, String kind, String name, String browser, Long guestId, String weddingId) {
+            this.occurredAt = occurredAt;
+            this.kind = kind;
+            this.name = name;
+            this.browser = browser;
+            this.guestId = guestId;
+            this.weddingId = weddingId;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.wedding.api.analytics;
+
+import com.wedding.api.tenant.TenantContext;
+import com.wedding.api.tenant.TenantShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Background maintenance of the analytics store:
+// - keeps daily analytics_events partitions created ahead of time and drops them after the raw retention
+// - rolls raw events up into minute buckets, minutes into hours and hours into days; each level
+//   only reads the one below it, and a per-level watermark makes every run incremental
+// Reads for dashboards go through query(), which only touches analytics_rollups.
+// Buckets are kept per wedding; maintenance runs on every tenant shard in turn, and a query
+// only sees the current wedding's buckets.
+@Service
+@ConditionalOnProperty(name = "wedding.analytics.store.enabled", havingValue = "true", matchIfMissing = true)
+public class AnalyticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    public static final Set<String> GRANULARITIES = Set.of("minute", "hour", "day");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String PARTITION_PREFIX = "analytics_events_";
+
+    private static final String MINUTE_ROLLUP_SQL =
+            "INSERT INTO analytics_rollups (wedding_id, granularity, bucket_start, kind, name, event_count) " +
+            "SELECT wedding_id, 'minute', date_trunc('minute', occurred_at), kind, name, COUNT(*) " +
+            "FROM analytics_events WHERE occurred_at >= ? AND occurred_at < ? " +
+            "GROUP BY 1, 3, 4, 5 " +
+            "ON CONFLICT (wedding_id, granularity, kind, bucket_start, name) " +
+            "DO UPDATE SET event_count = analytics_rollups.event_count + EXCLUDED.event_count";
+
+    // Coarser levels are built from the level below: hour from minute, day from hour
+    private static final String COARSER_ROLLUP_SQL =
+            "INSERT INTO analytics_rollups (wedding_id, granularity, bucket_start, kind, name, event_count) " +
+            "SELECT wedding_id, ?, date_trunc(?, bucket_start), kind, name, SUM(event_count) " +
+            "FROM analytics_rollups WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "GROUP BY 1, 3, 4, 5 " +
+            "ON CONFLICT (wedding_id, granularity, kind, bucket_start, name) " +
+            "DO UPDATE SET event_count = analytics_rollups.event_count + EXCLUDED.event_count";
+
+    private static final String LOCK_STATE_SQL =
+            "SELECT rolled_up_to FROM analytics_rollup_state WHERE granularity = ? FOR UPDATE";
+
+    private static final String UPDATE_STATE_SQL =
+            "UPDATE analytics_rollup_state SET rolled_up_to = ? WHERE granularity = ?";
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'analytics_events'";
+
+    // Bounds one catch-up step after downtime so a single transaction never scans weeks of raw rows
+    private static final Duration MAX_MINUTE_STEP = Duration.ofHours(6);
+
+    private static final int MAX_QUERY_ROWS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TenantShards tenantShards;
+
+    @Value("${wedding.analytics.rollup.lateness-ms:30000}")
+    private long latenessMs;
+
+    @Value("${wedding.analytics.partitions.days-ahead:2}")
+    private int partitionDaysAhead;
+
+    @Value("${wedding.analytics.retention.raw-days:14}")
+    private int rawRetentionDays;
+
+    @Value("${wedding.analytics.retention.minute-days:7}")
+    private int minuteRetentionDays;
+
+    // Per shard
+    private final Map<String, LocalDate> partitionsReadyUntil = new ConcurrentHashMap<>();
+
+    // First run is right after startup, so today's partition exists before much has been flushed
+    @Scheduled(fixedDelayString = "${wedding.analytics.rollup.interval-ms:60000}")
+    public void maintain() {
+        for (String shard : tenantShards.getShardNames()) {
+            TenantContext.runOnShard(shard, () -> maintain(shard));
+        }
+    }
+
+    private void maintain(String shard) {
+        long start = System.nanoTime();
+        try {
+            ensurePartitions(shard);
+            LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(latenessMs));
+            LocalDateTime minutes = rollUp("minute", cutoff.truncatedTo(ChronoUnit.MINUTES));
+            LocalDateTime hours = rollUp("hour", minutes.truncatedTo(ChronoUnit.HOURS));
+            rollUp("day", hours.truncatedTo(ChronoUnit.DAYS));
+            applyRetention();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("wedding.analytics.rollup.failures").increment();
+            logger.warn("Analytics rollup on shard {} failed: {}", shard, e.getMessage());
+        } finally {
+            meterRegistry.timer("wedding.analytics.rollup.time").record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    // Rolls [watermark, target) of one level up and returns the new watermark. The state row is
+    // locked for the whole step, so concurrent replicas wait and then find nothing left to do.
+    private LocalDateTime rollUp(String granularity, LocalDateTime target) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime from = jdbcTemplate.queryForObject(LOCK_STATE_SQL, Timestamp.class, granularity).toLocalDateTime();
+            if (!target.isAfter(from)) {
+                return from;
+            }
+            LocalDateTime to = target;
+            int rows;
+            if (granularity.equals("minute")) {
+                if (Duration.between(from, to).compareTo(MAX_MINUTE_STEP) > 0) {
+                    to = from.plus(MAX_MINUTE_STEP);
+                }
+                rows = jdbcTemplate.update(MINUTE_ROLLUP_SQL, Timestamp.valueOf(from), Timestamp.valueOf(to));
+            } else {
+                String source = granularity.equals("hour") ? "minute" : "hour";
+                rows = jdbcTemplate.update(COARSER_ROLLUP_SQL, granularity, granularity, source,
+                        Timestamp.valueOf(from), Timestamp.valueOf(to));
+            }
+            jdbcTemplate.update(UPDATE_STATE_SQL, Timestamp.valueOf(to), granularity);
+            meterRegistry.counter("wedding.analytics.rollup.buckets", "granularity", granularity).increment(rows);
+            return to;
+        });
+    }
+
+    // Creates missing daily partitions from today through days-ahead. Rows that already fell into
+    // the default partition for that day are moved across before the new partition is attached.
+    private void ensurePartitions(String shard) {
+        LocalDate today = LocalDate.now();
+        LocalDate last = today.plusDays(partitionDaysAhead);
+        LocalDate readyUntil = partitionsReadyUntil.get(shard);
+        if (readyUntil != null && !readyUntil.isBefore(last)) {
+            return;
+        }
+        for (LocalDate day = today; !day.isAfter(last); day = day.plusDays(1)) {
+            String table = PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table)) {
+                continue;
+            }
+            Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+            Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE analytics_events INCLUDING DEFAULTS)");
+                jdbcTemplate.update("WITH moved AS (DELETE FROM analytics_events_default " +
+                        "WHERE occurred_at >= ? AND occurred_at < ? RETURNING *) " +
+                        "INSERT INTO " + table + " SELECT * FROM moved", from, to);
+                jdbcTemplate.execute("ALTER TABLE analytics_events ATTACH PARTITION " + table +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            });
+            logger.info("Created analytics partition {} on shard {}", table, shard);
+        }
+        partitionsReadyUntil.put(shard, last);
+    }
+
+    private void applyRetention() {
+        LocalDate rawCutoff = LocalDate.now().minusDays(rawRetentionDays);
+        for (String table : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+            if (!table.startsWith(PARTITION_PREFIX) || table.equals(PARTITION_PREFIX + "default")) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(table.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (day.isBefore(rawCutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+                logger.info("Dropped analytics partition {} (older than {} days)", table, rawRetentionDays);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM analytics_events_default WHERE occurred_at < ?",
+                Timestamp.valueOf(rawCutoff.atStartOfDay()));
+        jdbcTemplate.update("DELETE FROM analytics_rollups WHERE granularity = 'minute' AND bucket_start < ?",
+                Timestamp.valueOf(LocalDate.now().minusDays(minuteRetentionDays).atStartOfDay()));
+    }
+
+    public Map<String, Object> query(String kind, String granularity, LocalDateTime from, LocalDateTime to, String name) {
+        if (!GRANULARITIES.contains(granularity)) {
+            throw new RuntimeException("granularity must be one of " + GRANULARITIES);
+        }
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("from must be before to");
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT bucket_start, name, event_count FROM analytics_rollups " +
+                "WHERE wedding_id = ? AND granularity = ? AND kind = ? AND bucket_start >= ? AND bucket_start < ?");
+        List<Object> args = new ArrayList<>(List.of(TenantContext.current(), granularity, kind,
+                Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (name != null && !name.isBlank()) {
+            sql.append(" AND name = ?");
+            args.add(name.trim());
+        }
+        sql.append(" ORDER BY bucket_start, name LIMIT ").append(MAX_QUERY_ROWS + 1);
+
+        List<Map<String, Object>> series = new ArrayList<>();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        // Set only when the extra row comes back, so exactly MAX_QUERY_ROWS rows isn't reported as truncated
+        AtomicBoolean truncated = new AtomicBoolean();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            if (series.size() == MAX_QUERY_ROWS) {
+                truncated.set(true);
+                return;
+            }
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("bucketStart", rs.getTimestamp("bucket_start").toLocalDateTime());
+            point.put("name", rs.getString("name"));
+            point.put("count", rs.getLong("event_count"));
+            series.add(point);
+            totals.merge(rs.getString("name"), rs.getLong("event_count"), Long::sum);
+        }, args.toArray());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("kind", kind);
+        response.put("granularity", granularity);
+        response.put("from", from);
+        response.put("to", to);
+        // Buckets at or after this point are not complete yet
+        response.put("rolledUpTo", jdbcTemplate.queryForObject(
+                "SELECT rolled_up_to FROM analytics_rollup_state WHERE granularity = ?", Timestamp.class, granularity)
+                .toLocalDateTime());
+        response.put("totals", totals);
+        response.put("series", series);
+        response.put("truncated", truncated.get());
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package com.wedding.api.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Bulk get over a Spring Cache: Cache has no getAll, so keys are probed one by one (in-memory,
+// cheap) and all misses go to the loader in a single call, typically one IN (...) query.
+// Loaded values are written back so later single-key @Cacheable lookups hit as well.
+// Keys the loader returns nothing for are simply absent from the result.
+public final class CacheBatchLookup {
+
+    private CacheBatchLookup() {
+    }
+
+    public static <K, V> Map<K, V> getAll(Cache cache, Collection<K> keys, Class<V> type,
+                                          Function<Collection<K>, Map<K, V>> loader, MeterRegistry meterRegistry) {
+        Map<K, V> found = new LinkedHashMap<>();
+        List<K> misses = new ArrayList<>();
+        String cacheName = cache != null ? cache.getName() : "none";
+        for (K key : keys) {
+            // Caches from the TenantScopedCacheManager emit the CacheAccess event themselves
+            V cached = cache != null ? cache.get(key, type) : null;
+            if (cached != null) {
+                found.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+
+        meterRegistry.counter("wedding.cache.batch.lookups", "cache", cacheName, "result", "hit").increment(found.size());
+        meterRegistry.counter("wedding.cache.batch.lookups", "cache", cacheName, "result", "miss").increment(misses.size());
+
+        if (!misses.isEmpty()) {
+            Map<K, V> loaded = loader.apply(misses);
+            for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                found.put(entry.getKey(), entry.getValue());
+                if (cache != null) {
+                    cache.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,193 @@
+package com.wedding.api.cache;
+
+import com.wedding.api.jfr.CacheAccessEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+// Small keyed cache for values that are expensive to compute:
+// - entries live for ttl; once they are within refreshAhead of expiring, the first reader
+//   triggers a background reload and everyone keeps getting the current value meanwhile
+// - a miss is loaded by exactly one caller per key; concurrent callers wait for that load
+// - evict() deregisters the key's in-flight load: that load can no longer store its (possibly
+//   stale) value, and readers arriving after the eviction start a fresh load instead of joining it
+public class RefreshAheadCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final String name;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final Executor executor;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalescedLoads;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+
+    public RefreshAheadCache(String name, Duration ttl, Duration refreshAhead, Executor executor, MeterRegistry meterRegistry) {
+        if (refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be shorter than ttl for cache " + name);
+        }
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAfterNanos = ttl.minus(refreshAhead).toNanos();
+        this.executor = executor;
+
+        // One meter for all refresh-ahead caches, told apart by the key tag
+        this.hits = meterRegistry.counter("wedding.cache.access", "key", name, "result", "hit");
+        this.misses = meterRegistry.counter("wedding.cache.access", "key", name, "result", "miss");
+        this.coalescedLoads = meterRegistry.counter("wedding.cache.load.coalesced", "cache", name);
+        this.refreshes = meterRegistry.counter("wedding.cache.refresh", "cache", name, "result", "success");
+        this.refreshFailures = meterRegistry.counter("wedding.cache.refresh", "cache", name, "result", "failure");
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt;
+            if (age < ttlNanos) {
+                hits.increment();
+                CacheAccessEvent.emit(name, key, true);
+                if (age >= refreshAfterNanos) {
+                    refreshAsync(key, loader);
+                }
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        CacheAccessEvent.emit(name, key, false);
+        return load(key, loader);
+    }
+
+    // For prefetchers: loads the key now unless it is cached and not yet due for refresh.
+    // Returns whether a load happened; failures propagate and leave any current value in place.
+    public boolean warm(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.loadedAt < refreshAfterNanos) {
+            return false;
+        }
+        load(key, loader);
+        return true;
+    }
+
+    // Expired entries are otherwise only replaced when their key is read again
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // In-flight loads are dropped first: one that stores before that is removed with the entries,
+    // one that finishes after finds itself deregistered and doesn't store
+    public void evict(K key) {
+        inFlight.remove(key);
+        entries.remove(key);
+    }
+
+    public void clear() {
+        inFlight.clear();
+        entries.clear();
+    }
+
+    private V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = loadAndStore(key, loader, pending);
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private void refreshAsync(K key, Function<K, V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, pending) != null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    pending.complete(loadAndStore(key, loader, pending));
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    // Keep serving the current value until it expires
+                    pending.completeExceptionally(e);
+                    refreshFailures.increment();
+                    logger.warn("Refresh-ahead of {}[{}] failed: {}", name, key, e.getMessage());
+                } finally {
+                    inFlight.remove(key, pending);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor rejected the task; the next reader will try again
+            inFlight.remove(key, pending);
+            pending.cancel(false);
+        }
+    }
+
+    private V loadAndStore(K key, Function<K, V> loader, CompletableFuture<V> pending) {
+        V value = loader.apply(key);
+        if (value != null) {
+            Entry<V> entry = new Entry<>(value, System.nanoTime());
+            // Atomic with evict()'s removal of the in-flight mapping: only a load still registered
+            // for the key may store
+            inFlight.computeIfPresent(key, (ignored, current) -> {
+                if (current == pending) {
+                    entries.put(key, entry);
+                }
+                return current;
+            });
+        }
+        return value;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
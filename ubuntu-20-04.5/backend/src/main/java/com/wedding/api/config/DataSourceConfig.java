@@ -0,0 +1,71 @@
+package com.wedding.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Only active when a replica is configured; otherwise Spring Boot's single Hikari pool is used as before
+@Configuration
+@ConditionalOnProperty(name = "wedding.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName("wedding-primary");
+        return pool;
+    }
+
+    // Bound straight onto Hikari, so the replica takes jdbc-url/username/password plus any pool setting
+    @Bean
+    @ConfigurationProperties("wedding.datasource.replica.hikari")
+    public HikariDataSource replicaPool() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("wedding-replica");
+        pool.setReadOnly(true);
+        // Don't block startup if the replica is down; the health check keeps it out of rotation
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryPool") HikariDataSource primaryPool,
+                                                             @Qualifier("replicaPool") HikariDataSource replicaPool,
+                                                             @Value("${wedding.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+                                                             MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryPool, replicaPool, maxLagMs);
+        // Not probed here: an unreachable replica would hold up startup for the connection timeout
+        routing.afterPropertiesSet();
+
+        Gauge.builder("wedding.datasource.replica.healthy", routing, r -> r.isReplicaHealthy() ? 1 : 0)
+                .description("1 when read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("wedding.datasource.replica.lag", routing, ReplicaRoutingDataSource::getReplicaLagMs)
+                .description("Replication lag observed by the last health check (ms, -1 if unreachable)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return routing;
+    }
+
+    // The lazy proxy defers fetching a physical connection until the first statement,
+    // by which point the transaction's read-only flag is known to the router
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,62 @@
+package com.wedding.api.config;
+
+import com.wedding.api.jdbc.InstrumentedDataSource;
+import com.wedding.api.jdbc.QueryContext;
+import com.wedding.api.jdbc.QueryExecutionListener;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+// Statement timing for every query the app issues. Pool-level numbers (acquire wait, usage,
+// active/idle/pending per pool) come from Hikari's own Micrometer tracker, which Spring Boot
+// installs on each pool as hikaricp.connections.*; this adds the per-query view on top.
+// The post-processors are static so they don't pull the listeners in early.
+@Configuration
+public class JdbcInstrumentationConfig {
+
+    // Wraps only the top-level "dataSource" bean, so with the replica router enabled each
+    // statement is still timed exactly once regardless of which pool serves it
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, () -> listeners.orderedStream().toList());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Names statements after the repository method that issued them, e.g. GuestRepository.findByEmail
+    @Bean
+    public static BeanPostProcessor repositoryQueryNamingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> {
+                                String repositoryName = repositoryInformation.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice(0, (MethodInterceptor) invocation -> {
+                                    String previous = QueryContext.enter(repositoryName + "." + invocation.getMethod().getName());
+                                    try {
+                                        return invocation.proceed();
+                                    } finally {
+                                        QueryContext.restore(previous);
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.wedding.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Routes read-only transactions to the replica pool and everything else to the primary.
+// Reads fall back to the primary whenever the last health check found the replica down or lagging.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    // Lag in ms as seen by the replica; 0 when the node is not in recovery (i.e. not a standby) or
+    // has replayed everything it received. The replay timestamp alone keeps growing while the
+    // primary is idle, which would push a fully caught-up replica out of rotation.
+    private static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource replica;
+    private final long maxLagMs;
+
+    private final AtomicBoolean replicaHealthy = new AtomicBoolean(false);
+    private final AtomicLong replicaLagMs = new AtomicLong(-1);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaHealthy.get()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+
+    // A failed probe takes the replica out of rotation until the next successful one. The first
+    // probe runs as soon as scheduling starts; until then reads stay on the primary.
+    @Scheduled(fixedDelayString = "${wedding.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            long lag = resultSet.next() ? (long) resultSet.getDouble(1) : Long.MAX_VALUE;
+            replicaLagMs.set(lag);
+            updateHealth(lag <= maxLagMs, "replication lag " + lag + " ms");
+        } catch (Exception e) {
+            replicaLagMs.set(-1);
+            updateHealth(false, e.getMessage());
+        }
+    }
+
+    private void updateHealth(boolean healthy, String reason) {
+        boolean previous = replicaHealthy.getAndSet(healthy);
+        if (previous != healthy) {
+            if (healthy) {
+                logger.info("Read replica back in rotation ({})", reason);
+            } else {
+                logger.warn("Read replica out of rotation, reads fall back to primary ({})", reason);
+            }
+        }
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy.get();
+    }
+
+    public long getReplicaLagMs() {
+        return replicaLagMs.get();
+    }
+}
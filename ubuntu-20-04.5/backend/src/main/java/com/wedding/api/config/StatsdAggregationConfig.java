@@ -0,0 +1,31 @@
+package com.wedding.api.config;
+
+import com.wedding.api.metrics.AggregatingStatsdMeterRegistry;
+import io.micrometer.core.instrument.Clock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// wedding.metrics.statsd.mode=aggregated replaces Boot's per-update StatsD registry with one that
+// flushes aggregated counters and timer distributions once per step, in MTU-sized datagrams.
+// It sends to the same agent host/port; keep management.statsd.metrics.export.enabled=false
+// while this mode is on, or every meter is exported twice.
+@Configuration
+@ConditionalOnProperty(name = "wedding.metrics.statsd.mode", havingValue = "aggregated")
+public class StatsdAggregationConfig {
+
+    @Bean
+    public AggregatingStatsdMeterRegistry aggregatingStatsdMeterRegistry(
+            @Value("${management.statsd.metrics.export.host:localhost}") String host,
+            @Value("${management.statsd.metrics.export.port:8125}") int port,
+            @Value("${wedding.metrics.statsd.step:10s}") Duration step,
+            @Value("${wedding.metrics.statsd.max-packet-length:1432}") int maxPacketLength,
+            @Value("${wedding.metrics.statsd.percentiles:0.5,0.95,0.99}") double[] percentiles,
+            Clock clock) throws IOException {
+        return new AggregatingStatsdMeterRegistry(host, port, step, maxPacketLength, percentiles, clock);
+    }
+}
@@ -0,0 +1,111 @@
+package com.wedding.api.config;
+
+import com.wedding.api.tenant.ShardRoutingDataSource;
+import com.wedding.api.tenant.TenantIdentifierResolver;
+import com.wedding.api.tenant.TenantScopedCacheManager;
+import com.wedding.api.tenant.TenantShards;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Multi-wedding support: Hibernate stamps and filters the wedding_id (@TenantId) columns from
+// TenantContext, caches are scoped per wedding, and with wedding.tenancy.sharding.enabled the
+// "dataSource" bean becomes a router over the primary database and the configured shards.
+// The post-processors are static for the same reason as in JdbcInstrumentationConfig.
+@Configuration
+public class TenancyConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantIdentifierResolverCustomizer() {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+    }
+
+    @Bean
+    public static BeanPostProcessor tenantScopedCacheManagerPostProcessor(Environment environment) {
+        List<String> shared = Binder.get(environment)
+                .bind("wedding.tenancy.shared-caches", Bindable.listOf(String.class))
+                .orElse(Collections.emptyList());
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof TenantScopedCacheManager)) {
+                    return new TenantScopedCacheManager(cacheManager, new HashSet<>(shared));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "wedding.tenancy.sharding.enabled", havingValue = "true")
+    public static BeanPostProcessor shardRoutingDataSourcePostProcessor(Environment environment,
+                                                                        ObjectProvider<TenantShards> tenantShards,
+                                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ShardRoutingPostProcessor(environment, tenantShards, meterRegistry);
+    }
+
+    // Ordered, so it wraps "dataSource" before the (unordered) statement-timing post-processor
+    // does; every statement is then timed once, whichever shard serves it
+    static class ShardRoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment environment;
+        private final ObjectProvider<TenantShards> tenantShards;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ShardRoutingPostProcessor(Environment environment, ObjectProvider<TenantShards> tenantShards,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+            this.environment = environment;
+            this.tenantShards = tenantShards;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)
+                    || bean instanceof ShardRoutingDataSource) {
+                return bean;
+            }
+            Map<String, DataSource> shards = new LinkedHashMap<>();
+            shards.put(TenantShards.PRIMARY, primary);
+            // Bound straight onto Hikari like the replica pool: jdbc-url/username/password plus any pool setting
+            Map<String, HikariConfig> configs = Binder.get(environment)
+                    .bind("wedding.tenancy.shards", Bindable.mapOf(String.class, HikariConfig.class))
+                    .orElse(Collections.emptyMap());
+            for (Map.Entry<String, HikariConfig> entry : configs.entrySet()) {
+                HikariDataSource pool = new HikariDataSource();
+                entry.getValue().copyStateTo(pool);
+                pool.setPoolName("wedding-shard-" + entry.getKey());
+                // Started on first use, so a shard that is down doesn't block startup
+                pool.setInitializationFailTimeout(-1);
+                pool.setMetricRegistry(meterRegistry.getObject());
+                shards.put(entry.getKey(), pool);
+            }
+            ShardRoutingDataSource routing = new ShardRoutingDataSource(tenantShards.getObject(), shards);
+            routing.afterPropertiesSet();
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 100;
+        }
+    }
+}
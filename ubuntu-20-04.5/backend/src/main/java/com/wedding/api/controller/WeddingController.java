@@ -1,27 +1,45 @@
 package com.wedding.api.controller;
 
+import com.wedding.api.analytics.AnalyticsRollupService;
 import com.wedding.api.model.Guest;
+import com.wedding.api.model.GuestRsvpView;
 import com.wedding.api.model.RSVP;
 import com.wedding.api.model.WeddingEvent;
+import com.wedding.api.seating.SeatingJob;
+import com.wedding.api.seating.SeatingRequest;
+import com.wedding.api.seating.SeatingService;
+import com.wedding.api.service.CateringReportService;
 import com.wedding.api.service.GuestService;
 import com.wedding.api.service.RSVPService;
+import com.wedding.api.service.RSVPWriteBehindService;
 import com.wedding.api.service.EventService;
 import com.wedding.api.service.ExternalApiService;
+import com.wedding.api.service.ExternalDataPrefetcher;
 import com.wedding.api.service.MetricsService;
+import com.wedding.api.service.StatsStreamService;
 
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.annotation.Counted;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -41,25 +59,66 @@ public class WeddingController {
     @Autowired
     private ExternalApiService externalApiService;
     
+    @Autowired
+    private ExternalDataPrefetcher externalDataPrefetcher;
+    
     @Autowired
     private MetricsService metricsService;
+    
+    @Autowired
+    private StatsStreamService statsStreamService;
+    
+    @Autowired
+    private CateringReportService cateringReportService;
+    
+    @Autowired(required = false)
+    private RSVPWriteBehindService rsvpWriteBehindService;
+    
+    @Autowired
+    private SeatingService seatingService;
+    
+    @Autowired(required = false)
+    private AnalyticsRollupService analyticsRollupService;
 
     // ==== GUEST MANAGEMENT APIs (Database Heavy) ====
     
     @GetMapping("/guests")
     @Timed(value = "wedding.guests.list.time", description = "Time to list guests")
     @Counted(value = "wedding.guests.list.count", description = "Number of guest list requests")
-    public ResponseEntity<Page<Guest>> getGuests(
+    public ResponseEntity<Page<?>> getGuests(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<String> fields,
             Pageable pageable) {
         
         metricsService.recordGuestListAccess();
+        // fields=firstName,lastName,email selects just those columns instead of whole entities
+        if (fields != null && !fields.isEmpty()) {
+            Page<Map<String, Object>> guests = guestService.getGuests(pageable, search, fields);
+            return ResponseEntity.ok(guests);
+        }
         Page<Guest> guests = guestService.getGuests(pageable, search);
         return ResponseEntity.ok(guests);
     }
 
+    @GetMapping("/guests/with-rsvp")
+    @Timed(value = "wedding.guests.with.rsvp.time", description = "Time to list guests with their RSVP")
+    @Counted(value = "wedding.guests.with.rsvp.count", description = "Number of joined guest+RSVP list requests")
+    public ResponseEntity<?> getGuestsWithRsvp(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size) {
+        // Cursor mode (after=<last guestId>) by default; page=N switches to numbered pages with a total count
+        metricsService.recordGuestListAccess();
+        if (page != null) {
+            Page<GuestRsvpView> guests = guestService.getGuestsWithRsvpPage(page, size);
+            return ResponseEntity.ok(guests);
+        }
+        Map<String, Object> guests = guestService.getGuestsWithRsvpAfter(after, size);
+        return ResponseEntity.ok(guests);
+    }
+
     @PostMapping("/guests")
     @Timed(value = "wedding.guests.create.time", description = "Time to create guest")
     @Counted(value = "wedding.guests.create.count", description = "Number of guest creations")
@@ -69,12 +128,22 @@ public class WeddingController {
         return ResponseEntity.ok(savedGuest);
     }
 
+    @GetMapping("/guests/batch")
+    @Timed(value = "wedding.guests.batch.time", description = "Time to get several guests by id")
+    @Counted(value = "wedding.guests.batch.count", description = "Number of guest multi-get requests")
+    public ResponseEntity<Map<String, Object>> getGuestsBatch(@RequestParam List<Long> ids) {
+        // ids=1,2,3: found guests in request order plus the ids that don't exist
+        Map<String, Object> result = guestService.getGuestsByIds(ids);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/guests/{id}")
     @Timed(value = "wedding.guests.get.time", description = "Time to get single guest")
     @Counted(value = "wedding.guests.get.count", description = "Number of single guest requests")
-    public ResponseEntity<Guest> getGuest(@PathVariable Long id) {
+    public ResponseEntity<Guest> getGuest(@PathVariable Long id, WebRequest request) {
         Guest guest = guestService.getGuestById(id);
-        return ResponseEntity.ok(guest);
+        String etag = "guest-" + guest.getId() + "-" + toEpochMillis(guest.getUpdatedAt());
+        return conditionalResponse(request, etag, guest.getUpdatedAt(), CacheControl.noCache().cachePrivate(), guest);
     }
 
     @PutMapping("/guests/{id}")
@@ -101,23 +170,32 @@ public class WeddingController {
     public ResponseEntity<RSVP> submitRSVP(@Valid @RequestBody RSVP rsvp) {
         metricsService.recordRSVPSubmission(rsvp.getStatus());
         
-        // Simulate complex business logic with multiple service calls
-        RSVP savedRSVP = rsvpService.submitRSVP(rsvp);
+        // Write-behind mode: logged locally and inserted by the drainer
+        if (rsvpWriteBehindService != null && rsvpWriteBehindService.submit(rsvp)) {
+            return ResponseEntity.accepted().body(rsvp);
+        }
         
-        // Async email notification (generates separate span)
-        CompletableFuture.runAsync(() -> {
-            rsvpService.sendConfirmationEmail(savedRSVP);
-        });
+        // Confirmation email is sent by the outbox relay once the RSVP has committed
+        RSVP savedRSVP = rsvpService.submitRSVP(rsvp);
         
         return ResponseEntity.ok(savedRSVP);
     }
 
+    @GetMapping("/rsvp/batch")
+    @Timed(value = "wedding.rsvp.batch.time", description = "Time to get several RSVPs by guest id")
+    @Counted(value = "wedding.rsvp.batch.count", description = "Number of RSVP multi-get requests")
+    public ResponseEntity<Map<String, Object>> getRSVPsBatch(@RequestParam List<Long> guestIds) {
+        Map<String, Object> result = rsvpService.getRSVPsByGuestIds(guestIds);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/rsvp/{guestId}")
     @Timed(value = "wedding.rsvp.get.time", description = "Time to get RSVP")
     @Counted(value = "wedding.rsvp.get.count", description = "Number of RSVP requests")
-    public ResponseEntity<RSVP> getRSVP(@PathVariable Long guestId) {
+    public ResponseEntity<RSVP> getRSVP(@PathVariable Long guestId, WebRequest request) {
         RSVP rsvp = rsvpService.getRSVPByGuestId(guestId);
-        return ResponseEntity.ok(rsvp);
+        String etag = "rsvp-" + rsvp.getId() + "-" + toEpochMillis(rsvp.getSubmittedAt());
+        return conditionalResponse(request, etag, rsvp.getSubmittedAt(), CacheControl.noCache().cachePrivate(), rsvp);
     }
 
     @GetMapping("/rsvp/stats")
@@ -134,19 +212,63 @@ public class WeddingController {
     @GetMapping("/events/details")
     @Timed(value = "wedding.events.details.time", description = "Time to get event details")
     @Counted(value = "wedding.events.details.count", description = "Number of event detail requests")
-    public ResponseEntity<WeddingEvent> getEventDetails() {
+    public ResponseEntity<WeddingEvent> getEventDetails(WebRequest request) {
         // This endpoint uses Redis caching
         WeddingEvent eventDetails = eventService.getEventDetails();
         metricsService.recordEventDetailsAccess();
-        return ResponseEntity.ok(eventDetails);
+        String etag = "event-" + eventDetails.getId() + "-" + toEpochMillis(eventDetails.getUpdatedAt());
+        return conditionalResponse(request, etag, eventDetails.getUpdatedAt(), CacheControl.noCache().cachePublic(), eventDetails);
+    }
+
+    @GetMapping("/events")
+    @Timed(value = "wedding.events.list.time", description = "Time to list the event schedule")
+    public ResponseEntity<List<WeddingEvent>> getAllEvents() {
+        return ResponseEntity.ok(eventService.getAllEvents());
+    }
+
+    @GetMapping("/events/upcoming")
+    @Timed(value = "wedding.events.upcoming.time", description = "Time to list upcoming events")
+    public ResponseEntity<List<WeddingEvent>> getUpcomingEvents() {
+        return ResponseEntity.ok(eventService.getUpcomingEvents());
+    }
+
+    @GetMapping("/events/next")
+    @Timed(value = "wedding.events.next.time", description = "Time to get the next event")
+    public ResponseEntity<WeddingEvent> getNextEvent() {
+        return eventService.getNextEvent()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/events/between")
+    @Timed(value = "wedding.events.between.time", description = "Time to list events in a date range")
+    public ResponseEntity<List<WeddingEvent>> getEventsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(eventService.getEventsBetween(start, end));
+    }
+
+    @GetMapping("/events/within")
+    @Timed(value = "wedding.events.within.time", description = "Time to list events in the next N hours")
+    public ResponseEntity<List<WeddingEvent>> getEventsWithinHours(@RequestParam(defaultValue = "24") long hours) {
+        if (hours < 1 || hours > EventService.MAX_WITHIN_HOURS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getEventsWithinHours(hours));
     }
 
     @GetMapping("/weather/{date}")
     @Timed(value = "wedding.weather.get.time", description = "Time to get weather")
     @Counted(value = "wedding.weather.get.count", description = "Number of weather requests")
     public ResponseEntity<Map<String, Object>> getWeather(@PathVariable String date) {
-        // External API call that can be slow/fail
-        Map<String, Object> weather = externalApiService.getWeatherForDate(date);
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // External API call that can be slow/fail; usually served warm by the prefetcher
+        Map<String, Object> weather = externalDataPrefetcher.getWeather(day);
         metricsService.recordWeatherApiCall();
         return ResponseEntity.ok(weather);
     }
@@ -156,8 +278,8 @@ public class WeddingController {
     @Counted(value = "wedding.venue.directions.count", description = "Number of directions requests")
     public ResponseEntity<Map<String, Object>> getVenueDirections(
             @RequestParam String from) {
-        // Another external API call
-        Map<String, Object> directions = externalApiService.getDirections(from);
+        // Another external API call; popular origins are prefetched
+        Map<String, Object> directions = externalDataPrefetcher.getDirections(from);
         return ResponseEntity.ok(directions);
     }
 
@@ -183,6 +305,23 @@ public class WeddingController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/analytics/rollups")
+    @Timed(value = "wedding.analytics.rollups.time", description = "Time to query analytics rollups")
+    public ResponseEntity<Map<String, Object>> getAnalyticsRollups(
+            @RequestParam(defaultValue = "page_view") String kind,
+            @RequestParam(defaultValue = "hour") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String name) {
+        if (analyticsRollupService == null) {
+            throw new RuntimeException("Analytics store is disabled");
+        }
+        // Defaults to the last 24 hours; reads only the pre-aggregated buckets, never raw events
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        return ResponseEntity.ok(analyticsRollupService.query(kind, granularity, start, end, name));
+    }
+
     @GetMapping("/dashboard/stats")
     @Timed(value = "wedding.dashboard.stats.time", description = "Time to get dashboard stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
@@ -191,6 +330,45 @@ public class WeddingController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/catering/report")
+    @Timed(value = "wedding.catering.report.time", description = "Time to get the catering headcount report")
+    public ResponseEntity<Map<String, Object>> getCateringReport() {
+        // Headcounts by RSVP status, plus-ones and normalised dietary tags; cached until a guest or RSVP changes
+        Map<String, Object> report = cateringReportService.getCateringReport();
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStats() {
+        // Live dashboard + RSVP stats: a "snapshot" event on connect, then "delta" events on change
+        return statsStreamService.subscribe();
+    }
+
+    // ==== SEATING APIs (Parallel Background Jobs) ====
+    
+    @PostMapping("/seating/jobs")
+    @Timed(value = "wedding.seating.submit.time", description = "Time to validate and start a seating job")
+    public ResponseEntity<Map<String, Object>> startSeatingJob(@RequestBody SeatingRequest seatingRequest) {
+        // Solving runs in the background; poll the returned job until it is no longer RUNNING
+        SeatingJob job = seatingService.startJob(seatingRequest);
+        return ResponseEntity.accepted()
+                .header("Location", "/api/seating/jobs/" + job.getId())
+                .body(job.toMap(false));
+    }
+
+    @GetMapping("/seating/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getSeatingJob(@PathVariable String jobId,
+                                                             @RequestParam(defaultValue = "true") boolean includeTables) {
+        SeatingJob job = seatingService.getJob(jobId);
+        return ResponseEntity.ok(job.toMap(includeTables));
+    }
+
+    @DeleteMapping("/seating/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelSeatingJob(@PathVariable String jobId) {
+        SeatingJob job = seatingService.cancelJob(jobId);
+        return ResponseEntity.accepted().body(job.toMap(false));
+    }
+
     // ==== PERFORMANCE TEST ENDPOINTS ====
     
     @GetMapping("/performance/slow-query")
@@ -203,9 +381,16 @@ public class WeddingController {
 
     @GetMapping("/performance/cpu-intensive")
     @Timed(value = "wedding.performance.cpu.time", description = "CPU intensive operation")
-    public ResponseEntity<Map<String, Object>> cpuIntensiveOperation() {
-        // CPU intensive operation for monitoring
-        Map<String, Object> result = eventService.performCPUIntensiveTask();
+    public ResponseEntity<Map<String, Object>> cpuIntensiveOperation(
+            @RequestParam(required = false) Long iterations,
+            @RequestParam(required = false) Integer parallelism,
+            @RequestParam(defaultValue = "true") boolean baseline) {
+        // CPU intensive operation for monitoring and multicore calibration
+        Map<String, Object> result = eventService.performCPUIntensiveTask(iterations, parallelism, baseline);
+        if (result == null) {
+            // Another calibration run is still using the pool
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
         return ResponseEntity.ok(result);
     }
 
@@ -237,4 +422,26 @@ public class WeddingController {
         // This will trigger validation errors
         return ResponseEntity.ok(guestService.createGuest(invalidGuest));
     }
+
+    // ==== CONDITIONAL GET SUPPORT ====
+
+    // Answers 304 without serializing the body when the client's ETag/Last-Modified still matches
+    private <T> ResponseEntity<T> conditionalResponse(WebRequest request, String etag, LocalDateTime lastModified,
+                                                      CacheControl cacheControl, T body) {
+        long lastModifiedMillis = toEpochMillis(lastModified);
+        if (request.checkNotModified(etag, lastModifiedMillis)) {
+            metricsService.recordConditionalGet(true);
+            return null;
+        }
+        metricsService.recordConditionalGet(false);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModifiedMillis)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.wedding.api.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+// nginx proxies /actuator/ publicly, so the diagnostics endpoints require
+// "Authorization: Bearer <wedding.diagnostics.token>". Flight recordings include the JVM's system
+// properties and environment variables, which can hold credentials; query stats and resource
+// profiles reveal SQL and traffic per route and can be reset with DELETE. With no token
+// configured these endpoints are refused outright.
+@Component
+public class DiagnosticsAuthFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final List<String> PROTECTED_PATHS = List.of(
+            "/actuator/flightrecording",
+            "/actuator/querystats",
+            "/actuator/resourceprofile");
+
+    private final byte[] expectedToken;
+
+    public DiagnosticsAuthFilter(@Value("${wedding.diagnostics.token:}") String token) {
+        this.expectedToken = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Matched on the path as handler mapping sees it (decoded, ;params removed, dot segments and
+    // duplicate slashes collapsed); the raw URI lets /actuator/flight%72ecording slip past
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = StringUtils.cleanPath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        return PROTECTED_PATHS.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (expectedToken == null) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Diagnostics endpoints are disabled: no diagnostics token configured");
+            return;
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        byte[] presented = header != null && header.startsWith(BEARER_PREFIX)
+                ? header.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        // Constant-time comparison
+        if (!MessageDigest.isEqual(expectedToken, presented)) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,44 @@
+package com.wedding.api.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+// Adds the request's statement count and DB time as headers just before the body is written,
+// while headers can still be changed. Server-Timing makes them visible in browser dev tools.
+// Lazy loads that happen during JSON serialization land after this and only show up in the route totals.
+@ControllerAdvice
+@ConditionalOnProperty(name = "wedding.query-tracking.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private RequestQueryTracker tracker;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestQueryStats stats = tracker.current();
+        if (stats != null) {
+            String dbTimeMs = String.format(Locale.ROOT, "%.2f", stats.getDbTimeNanos() / 1_000_000.0);
+            response.getHeaders().set("X-Query-Count", String.valueOf(stats.getQueryCount()));
+            response.getHeaders().set("X-DB-Time-Ms", dbTimeMs);
+            response.getHeaders().add("Server-Timing",
+                    "db;dur=" + dbTimeMs + ";desc=\"" + stats.getQueryCount() + " queries\"");
+        }
+        return body;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wedding.api.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/querystats?limit=20 - routes issuing the most SQL per request; DELETE resets the totals
+@Component
+@Endpoint(id = "querystats")
+public class QueryStatsEndpoint {
+
+    @Autowired
+    private RequestQueryTracker tracker;
+
+    @ReadOperation
+    public List<Map<String, Object>> worstRoutes(@Nullable Integer limit) {
+        return tracker.getWorstRoutes(limit != null ? limit : 20);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
@@ -0,0 +1,39 @@
+package com.wedding.api.diagnostics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Statements issued while serving one HTTP request; only touched by the request thread
+public class RequestQueryStats {
+
+    private int queryCount;
+    private long dbTimeNanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void record(String sql, long durationNanos) {
+        queryCount++;
+        dbTimeNanos += durationNanos;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    // The statement text run most often in this request, or null if nothing ran
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> worst = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (worst == null || entry.getValue() > worst.getValue()) {
+                worst = entry;
+            }
+        }
+        return worst;
+    }
+}
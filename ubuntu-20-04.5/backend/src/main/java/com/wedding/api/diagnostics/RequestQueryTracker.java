@@ -0,0 +1,93 @@
+package com.wedding.api.diagnostics;
+
+import com.wedding.api.jdbc.QueryExecution;
+import com.wedding.api.jdbc.QueryExecutionListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Counts statements and DB time per HTTP request (fed by InstrumentedDataSource) and keeps
+// per-route totals. The same SQL text running nPlusOneThreshold or more times in one request
+// is reported as a likely N+1: Hibernate issues identical parameterized SQL for each lazy load.
+@Component
+public class RequestQueryTracker implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestQueryTracker.class);
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wedding.query-tracking.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    private final RouteStatsTable<RouteQueryStats> routes;
+
+    public RequestQueryTracker(@Value("${wedding.query-tracking.max-routes:200}") int maxRoutes) {
+        this.routes = new RouteStatsTable<>(maxRoutes, RouteQueryStats::new);
+    }
+
+    @Override
+    public void afterQuery(QueryExecution execution) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(execution.getSql(), execution.getDurationNanos());
+        }
+    }
+
+    RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void finish(String route, RequestQueryStats stats) {
+        CURRENT.remove();
+
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        boolean nPlusOne = mostRepeated != null && mostRepeated.getValue() >= nPlusOneThreshold;
+
+        DistributionSummary.builder("wedding.http.request.queries")
+                .description("SQL statements issued per request")
+                .tag("route", route)
+                .register(meterRegistry)
+                .record(stats.getQueryCount());
+        meterRegistry.timer("wedding.http.request.db.time", "route", route)
+                .record(stats.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+        if (nPlusOne) {
+            meterRegistry.counter("wedding.http.request.nplusone", "route", route).increment();
+            logger.warn("Possible N+1 on {}: same statement ran {} times in one request: {}",
+                    route, mostRepeated.getValue(), mostRepeated.getKey());
+        }
+
+        RouteQueryStats routeStats = routes.forRoute(route);
+        if (routeStats != null) {
+            routeStats.add(stats, nPlusOne);
+        }
+    }
+
+    // Routes ordered by average statements per request, heaviest first
+    public List<Map<String, Object>> getWorstRoutes(int limit) {
+        return routes.top(Comparator.comparingDouble(RouteQueryStats::getAverageQueries), limit).stream()
+                .map(RouteQueryStats::toMap)
+                .toList();
+    }
+
+    public void reset() {
+        routes.reset();
+    }
+}
@@ -0,0 +1,34 @@
+package com.wedding.api.diagnostics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/resourceprofile?sortBy=cpu|allocation&limit=20 - heaviest routes among sampled requests
+@Component
+@Endpoint(id = "resourceprofile")
+public class ResourceProfileEndpoint {
+
+    @Autowired
+    private ResourceProfilingFilter profilingFilter;
+
+    @ReadOperation
+    public Map<String, Object> heaviestRoutes(@Nullable String sortBy, @Nullable Integer limit) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sampleRate", profilingFilter.getSampleRate());
+        result.put("sortBy", "allocation".equalsIgnoreCase(sortBy) ? "allocation" : "cpu");
+        result.put("routes", profilingFilter.getHeaviestRoutes(sortBy, limit != null ? limit : 20));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profilingFilter.reset();
+    }
+}
@@ -0,0 +1,132 @@
+package com.wedding.api.diagnostics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Samples thread CPU time and bytes allocated by the request thread around a fraction of
+// /api requests (wedding.resource-profiling.sample-rate). Unsampled requests cost one random
+// draw; with a rate of 0 the filter is skipped entirely. Work handed to other threads
+// (outbox relay, SSE senders, parallel streams) is not attributed to the request.
+@Component
+public class ResourceProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceProfilingFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final boolean cpuSupported;
+    private final boolean allocationSupported;
+
+    private final RouteStatsTable<RouteResourceStats> routes;
+
+    public ResourceProfilingFilter(@Value("${wedding.resource-profiling.sample-rate:0.1}") double sampleRate,
+                                   @Value("${wedding.resource-profiling.max-routes:200}") int maxRoutes) {
+        this.sampleRate = sampleRate;
+        this.routes = new RouteStatsTable<>(maxRoutes, RouteResourceStats::new);
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof com.sun.management.ThreadMXBean sunBean ? sunBean : null;
+
+        this.cpuSupported = bean.isCurrentThreadCpuTimeSupported();
+        this.allocationSupported = threadMXBean != null && threadMXBean.isThreadAllocatedMemorySupported();
+        if (sampleRate > 0) {
+            if (cpuSupported && !bean.isThreadCpuTimeEnabled()) {
+                bean.setThreadCpuTimeEnabled(true);
+            }
+            if (allocationSupported && !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            if (!cpuSupported || !allocationSupported) {
+                logger.info("Request profiling on this JVM: cpu={}, allocation={}", cpuSupported, allocationSupported);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return sampleRate <= 0 || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long cpuStart = cpuSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+        long allocatedStart = allocationSupported ? threadMXBean.getCurrentThreadAllocatedBytes() : 0;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long cpuNanos = cpuSupported ? threadMXBean.getCurrentThreadCpuTime() - cpuStart : 0;
+            long allocatedBytes = allocationSupported ? threadMXBean.getCurrentThreadAllocatedBytes() - allocatedStart : 0;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            record(request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN"), cpuNanos, allocatedBytes);
+        }
+    }
+
+    private void record(String route, long cpuNanos, long allocatedBytes) {
+        if (cpuSupported) {
+            Timer.builder("wedding.http.request.cpu")
+                    .description("CPU time of the request thread (sampled requests)")
+                    .tag("route", route)
+                    .register(meterRegistry)
+                    .record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+        if (allocationSupported) {
+            DistributionSummary.builder("wedding.http.request.allocated")
+                    .description("Heap bytes allocated by the request thread (sampled requests)")
+                    .baseUnit("bytes")
+                    .tag("route", route)
+                    .register(meterRegistry)
+                    .record(allocatedBytes);
+        }
+
+        RouteResourceStats stats = routes.forRoute(route);
+        if (stats != null) {
+            stats.add(cpuNanos, allocatedBytes);
+        }
+    }
+
+    // Heaviest routes by average CPU time, or by average allocation when sortBy is "allocation"
+    public List<Map<String, Object>> getHeaviestRoutes(String sortBy, int limit) {
+        Comparator<RouteResourceStats> order = "allocation".equalsIgnoreCase(sortBy)
+                ? Comparator.comparingDouble(RouteResourceStats::getAverageAllocatedBytes)
+                : Comparator.comparingDouble(RouteResourceStats::getAverageCpuNanos);
+        return routes.top(order, limit).stream()
+                .map(RouteResourceStats::toMap)
+                .toList();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void reset() {
+        routes.reset();
+    }
+}
@@ -0,0 +1,56 @@
+package com.wedding.api.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Running totals for one route across requests
+public class RouteQueryStats {
+
+    private static final int MAX_SQL_LENGTH = 300;
+
+    private final String route;
+    private long requests;
+    private long totalQueries;
+    private int maxQueries;
+    private long totalDbTimeNanos;
+    private long suspectedNPlusOne;
+    private int worstRepeatCount;
+    private String worstRepeatedSql;
+
+    RouteQueryStats(String route) {
+        this.route = route;
+    }
+
+    synchronized void add(RequestQueryStats stats, boolean nPlusOne) {
+        requests++;
+        totalQueries += stats.getQueryCount();
+        maxQueries = Math.max(maxQueries, stats.getQueryCount());
+        totalDbTimeNanos += stats.getDbTimeNanos();
+        if (nPlusOne) {
+            suspectedNPlusOne++;
+        }
+        Map.Entry<String, Integer> mostRepeated = stats.getMostRepeated();
+        if (mostRepeated != null && mostRepeated.getValue() > worstRepeatCount) {
+            worstRepeatCount = mostRepeated.getValue();
+            String sql = mostRepeated.getKey();
+            worstRepeatedSql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+        }
+    }
+
+    synchronized double getAverageQueries() {
+        return requests == 0 ? 0 : (double) totalQueries / requests;
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("route", route);
+        map.put("requests", requests);
+        map.put("avgQueries", requests == 0 ? 0 : Math.round((double) totalQueries / requests * 10) / 10.0);
+        map.put("maxQueries", maxQueries);
+        map.put("avgDbTimeMs", requests == 0 ? 0 : Math.round(totalDbTimeNanos / 1_000.0 / requests) / 1_000.0);
+        map.put("suspectedNPlusOne", suspectedNPlusOne);
+        map.put("worstRepeatCount", worstRepeatCount);
+        map.put("worstRepeatedSql", worstRepeatedSql);
+        return map;
+    }
+}
@@ -0,0 +1,47 @@
+package com.wedding.api.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// CPU and allocation totals for the sampled requests of one route
+public class RouteResourceStats {
+
+    private final String route;
+    private long samples;
+    private long totalCpuNanos;
+    private long maxCpuNanos;
+    private long totalAllocatedBytes;
+    private long maxAllocatedBytes;
+
+    RouteResourceStats(String route) {
+        this.route = route;
+    }
+
+    synchronized void add(long cpuNanos, long allocatedBytes) {
+        samples++;
+        totalCpuNanos += cpuNanos;
+        maxCpuNanos = Math.max(maxCpuNanos, cpuNanos);
+        totalAllocatedBytes += allocatedBytes;
+        maxAllocatedBytes = Math.max(maxAllocatedBytes, allocatedBytes);
+    }
+
+    synchronized double getAverageCpuNanos() {
+        return samples == 0 ? 0 : (double) totalCpuNanos / samples;
+    }
+
+    synchronized double getAverageAllocatedBytes() {
+        return samples == 0 ? 0 : (double) totalAllocatedBytes / samples;
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("route", route);
+        map.put("samples", samples);
+        map.put("avgCpuMs", samples == 0 ? 0 : Math.round(totalCpuNanos / 1_000.0 / samples) / 1_000.0);
+        map.put("maxCpuMs", Math.round(maxCpuNanos / 1_000.0) / 1_000.0);
+        map.put("avgAllocatedKb", samples == 0 ? 0 : Math.round(totalAllocatedBytes / 1024.0 / samples));
+        map.put("maxAllocatedKb", Math.round(maxAllocatedBytes / 1024.0));
+        map.put("totalCpuMs", Math.round(totalCpuNanos / 1_000_000.0));
+        return map;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wedding.api.diagnostics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Per-route statistics keyed by handler pattern. Routes are bounded by the handler mappings,
+// but the table is capped in case unmatched paths leak through; past the cap new routes go
+// untracked until reset().
+class RouteStatsTable<S> {
+
+    private final int maxRoutes;
+    private final Function<String, S> factory;
+    private final Map<String, S> routes = new ConcurrentHashMap<>();
+
+    RouteStatsTable(int maxRoutes, Function<String, S> factory) {
+        this.maxRoutes = maxRoutes;
+        this.factory = factory;
+    }
+
+    // Null when the route is new and the table is full
+    S forRoute(String route) {
+        S stats = routes.get(route);
+        if (stats == null) {
+            if (routes.size() >= maxRoutes) {
+                return null;
+            }
+            stats = routes.computeIfAbsent(route, factory);
+        }
+        return stats;
+    }
+
+    // The limit routes ranking highest by order
+    List<S> top(Comparator<S> order, int limit) {
+        return routes.values().stream()
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    void reset() {
+        routes.clear();
+    }
+}
@@ -0,0 +1,52 @@
+package com.wedding.api.event;
+
+// Published after a Guest, RSVP or WeddingEvent row is inserted, updated or deleted.
+// Listeners keep per-wedding state, so the event names the wedding the row belongs to.
+public class DataChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Class<?> entityType;
+    private final Long entityId;
+    private final ChangeType changeType;
+    private final String weddingId;
+
+    public DataChangedEvent(Class<?> entityType, Long entityId, ChangeType changeType, String weddingId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+        this.weddingId = weddingId;
+    }
+
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getWeddingId() {
+        return weddingId;
+    }
+
+    public boolean isAbout(Class<?> type) {
+        return type.isAssignableFrom(entityType);
+    }
+
+    @Override
+    public String toString() {
+        return "DataChangedEvent{" +
+                "entityType=" + entityType.getSimpleName() +
+                ", entityId=" + entityId +
+                ", changeType=" + changeType +
+                ", weddingId=" + weddingId +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.wedding.api.event;
+
+import com.wedding.api.model.Guest;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.model.WeddingEvent;
+import com.wedding.api.tenant.TenantContext;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+// JPA entity listener (instantiated through Hibernate's Spring bean container) that turns
+// entity writes into DataChangedEvents. Consumers should use @TransactionalEventListener
+// so they only react once the write has committed.
+public class EntityChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Object entity) {
+        publish(entity, DataChangedEvent.ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdated(Object entity) {
+        publish(entity, DataChangedEvent.ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onDeleted(Object entity) {
+        publish(entity, DataChangedEvent.ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, DataChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new DataChangedEvent(entity.getClass(), idOf(entity), changeType, weddingOf(entity)));
+    }
+
+    private Long idOf(Object entity) {
+        if (entity instanceof Guest guest) return guest.getId();
+        if (entity instanceof RSVP rsvp) return rsvp.getId();
+        if (entity instanceof WeddingEvent event) return event.getId();
+        return null;
+    }
+
+    private String weddingOf(Object entity) {
+        if (entity instanceof Guest guest) return guest.getWeddingId();
+        if (entity instanceof RSVP rsvp) return rsvp.getWeddingId();
+        if (entity instanceof WeddingEvent event) return event.getWeddingId();
+        return TenantContext.current();
+    }
+}
@@ -0,0 +1,16 @@
+package com.wedding.api.event;
+
+// Published when no request has named a wedding for wedding.tenancy.idle-eviction-ms.
+// Listeners drop whatever they keep in memory for it; the next request loads it again.
+public class WeddingIdleEvent {
+
+    private final String weddingId;
+
+    public WeddingIdleEvent(String weddingId) {
+        this.weddingId = weddingId;
+    }
+
+    public String getWeddingId() {
+        return weddingId;
+    }
+}
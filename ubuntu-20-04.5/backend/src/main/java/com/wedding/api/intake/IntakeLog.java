@@ -0,0 +1,250 @@
+package com.wedding.api.intake;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only, checksummed log made of fixed-size memory-mapped segment files.
+//
+// Record layout: [int payloadLength][long sequence][int crc32c(sequence + payload)][payload]
+// A zero length marks the unused tail of a segment. A record with a bad checksum or one that
+// runs past the segment end is a torn write from a crash and ends replay of that segment.
+//
+// A separate checkpoint file holds the highest sequence already persisted downstream;
+// segments that lie entirely at or below it are deleted.
+public class IntakeLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntakeLog.class);
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "intake-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean forceOnAppend;
+
+    // First sequence of each segment file -> last sequence written to it
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+
+    private MappedByteBuffer current;
+    private long currentFirstSequence;
+    private long nextSequence;
+    private long checkpoint;
+
+    public IntakeLog(Path directory, int segmentBytes, boolean forceOnAppend) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    public static class Record {
+        private final long sequence;
+        private final byte[] payload;
+
+        Record(long sequence, byte[] payload) {
+            this.sequence = sequence;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    // Reads every intact record above the checkpoint and opens a fresh segment for new appends
+    public synchronized List<Record> open() throws IOException {
+        Files.createDirectories(directory);
+        checkpoint = readCheckpoint();
+
+        List<Record> pending = new ArrayList<>();
+        long highestSequence = checkpoint;
+
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentFiles = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path segmentFile : segmentFiles) {
+            long firstSequence = parseFirstSequence(segmentFile);
+            long lastSequence = firstSequence - 1;
+
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segmentFile));
+            Record record;
+            while ((record = readNext(buffer)) != null) {
+                lastSequence = record.sequence;
+                if (record.sequence > checkpoint) {
+                    pending.add(record);
+                }
+            }
+            if (buffer.hasRemaining() && buffer.getInt(buffer.position()) != 0) {
+                logger.warn("Ignoring torn record at offset {} of {}", buffer.position(), segmentFile.getFileName());
+            }
+
+            segments.put(firstSequence, lastSequence);
+            highestSequence = Math.max(highestSequence, lastSequence);
+        }
+
+        nextSequence = highestSequence + 1;
+        deleteDrainedSegments();
+        rollSegment();
+        return pending;
+    }
+
+    public synchronized long append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes - Integer.BYTES) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+        // Keep room for the zero terminator so replay always finds the end of a segment
+        if (current.remaining() < recordBytes + Integer.BYTES) {
+            rollSegment();
+        }
+
+        long sequence = nextSequence++;
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+
+        // Length goes in last, so a crash mid-write leaves a zero length or a checksum mismatch
+        int start = current.position();
+        current.position(start + Integer.BYTES);
+        current.putLong(sequence);
+        current.putInt((int) crc.getValue());
+        current.put(payload);
+        current.putInt(start, payload.length);
+        if (forceOnAppend) {
+            current.force();
+        }
+
+        segments.put(currentFirstSequence, sequence);
+        return sequence;
+    }
+
+    // Everything up to and including sequence has been persisted downstream
+    public synchronized void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpoint) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(0, sequence).array());
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = sequence;
+        deleteDrainedSegments();
+    }
+
+    public synchronized long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (current != null) {
+            current.force();
+            current = null;
+        }
+    }
+
+    private void rollSegment() {
+        if (current != null) {
+            current.force();
+        }
+        currentFirstSequence = nextSequence;
+        Path segmentFile = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, currentFirstSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(segmentFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create intake log segment " + segmentFile, e);
+        }
+        segments.put(currentFirstSequence, currentFirstSequence - 1);
+    }
+
+    private void deleteDrainedSegments() {
+        for (Long firstSequence : new ArrayList<>(segments.keySet())) {
+            // Segments are ordered, so the first one still holding undrained records ends the sweep
+            if (segments.get(firstSequence) > checkpoint) {
+                break;
+            }
+            // Never delete the segment currently being written to
+            if (current != null && firstSequence == currentFirstSequence) {
+                continue;
+            }
+            segments.remove(firstSequence);
+            try {
+                Files.deleteIfExists(directory.resolve(
+                        String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX)));
+            } catch (IOException e) {
+                logger.warn("Failed to delete drained intake log segment {}: {}", firstSequence, e.getMessage());
+            }
+        }
+    }
+
+    private Record readNext(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - HEADER_BYTES) {
+            return null;
+        }
+
+        long sequence = buffer.getLong(start + Integer.BYTES);
+        int storedCrc = buffer.getInt(start + Integer.BYTES + Long.BYTES);
+        byte[] payload = new byte[length];
+        buffer.get(start + HEADER_BYTES, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        if ((int) crc.getValue() != storedCrc) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_BYTES + length);
+        return new Record(sequence, payload);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private long parseFirstSequence(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.wedding.api.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Thin JDBC proxy: times every statement execution and hands it to the registered
+// QueryExecutionListeners. Bind parameters are never read, so this costs a couple of nanoTime
+// calls per statement. Connection checkout and hold times are left to the pools' own
+// hikaricp.connections.acquire/usage: connections handed out here may be lazy proxies that
+// haven't touched a pool yet, so timing them at this level would measure the wrong thing.
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private final Supplier<List<QueryExecutionListener>> listenerSupplier;
+    private volatile List<QueryExecutionListener> listeners;
+
+    public InstrumentedDataSource(DataSource target, Supplier<List<QueryExecutionListener>> listenerSupplier) {
+        super(target);
+        this.listenerSupplier = listenerSupplier;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private void publish(QueryExecution execution) {
+        List<QueryExecutionListener> current = listeners;
+        if (current == null) {
+            current = listenerSupplier.get();
+            listeners = current;
+        }
+        for (QueryExecutionListener listener : current) {
+            try {
+                listener.afterQuery(execution);
+            } catch (RuntimeException e) {
+                logger.debug("Query listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    return InstrumentedDataSource.invoke(target, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                        new Class<?>[]{type}, new StatementHandler(statement, sql, proxy));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Object connectionProxy;
+        // Last SQL added with Statement.addBatch(String), for naming plain-statement batches
+        private String batchSql;
+
+        StatementHandler(Statement target, String preparedSql, Object connectionProxy) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "getConnection":
+                    // Keep callers on the instrumented connection
+                    return connectionProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : preparedSql != null ? preparedSql : batchSql;
+            boolean batch = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch");
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = InstrumentedDataSource.invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                publish(new QueryExecution(QueryContext.currentQueryName(), sql,
+                        System.nanoTime() - start, batch, failed));
+            }
+        }
+    }
+}
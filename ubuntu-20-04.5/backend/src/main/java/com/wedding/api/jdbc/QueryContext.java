@@ -0,0 +1,33 @@
+package com.wedding.api.jdbc;
+
+// Name of the repository method currently running on this thread, so statements it issues can be
+// attributed to e.g. "GuestRepository.findBySearchTerm" instead of a raw SQL string
+public final class QueryContext {
+
+    public static final String UNATTRIBUTED = "unattributed";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private QueryContext() {
+    }
+
+    public static String currentQueryName() {
+        String name = CURRENT.get();
+        return name != null ? name : UNATTRIBUTED;
+    }
+
+    // Returns the previous name, which the caller must hand back to restore()
+    public static String enter(String queryName) {
+        String previous = CURRENT.get();
+        CURRENT.set(queryName);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.wedding.api.jdbc;
+
+public class QueryExecution {
+
+    private final String queryName;
+    private final String sql;
+    private final long durationNanos;
+    private final boolean batch;
+    private final boolean failed;
+
+    public QueryExecution(String queryName, String sql, long durationNanos, boolean batch, boolean failed) {
+        this.queryName = queryName;
+        this.sql = sql;
+        this.durationNanos = durationNanos;
+        this.batch = batch;
+        this.failed = failed;
+    }
+
+    public String getQueryName() {
+        return queryName;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    // select / insert / update / delete / other, taken from the leading keyword
+    public String getOperation() {
+        if (sql == null) {
+            return "other";
+        }
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        String keyword = sql.substring(start, end).toLowerCase();
+        switch (keyword) {
+            case "select":
+            case "with":
+                return "select";
+            case "insert":
+            case "update":
+            case "delete":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.wedding.api.jdbc;
+
+// Called by InstrumentedDataSource after every statement execution, on the executing thread
+public interface QueryExecutionListener {
+
+    void afterQuery(QueryExecution execution);
+}
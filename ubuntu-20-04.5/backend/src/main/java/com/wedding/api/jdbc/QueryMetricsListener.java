@@ -0,0 +1,53 @@
+package com.wedding.api.jdbc;
+
+import com.wedding.api.service.MetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-query latency by repository method, plus slow-query detection against
+// wedding.performance.slow-query-threshold (ms). Only the SQL text is logged, never bind values.
+@Component
+public class QueryMetricsListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsListener.class);
+
+    private static final int MAX_LOGGED_SQL = 500;
+
+    @Autowired
+    private MetricsService metricsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    public QueryMetricsListener(@Value("${wedding.performance.slow-query-threshold:2000}") long slowQueryThresholdMs) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+    }
+
+    @Override
+    public void afterQuery(QueryExecution execution) {
+        String operation = execution.getOperation();
+        metricsService.recordDatabaseQueryTime(execution.getQueryName(), operation, execution.getDurationNanos());
+
+        if (execution.isFailed()) {
+            meterRegistry.counter("wedding.database.query.errors", "type", execution.getQueryName()).increment();
+        }
+
+        if (execution.getDurationNanos() >= slowThresholdNanos) {
+            meterRegistry.counter("wedding.database.query.slow", "type", execution.getQueryName(), "operation", operation).increment();
+            String sql = execution.getSql();
+            if (sql != null && sql.length() > MAX_LOGGED_SQL) {
+                sql = sql.substring(0, MAX_LOGGED_SQL) + "...";
+            }
+            logger.warn("Slow query {} took {} ms: {}", execution.getQueryName(),
+                    TimeUnit.NANOSECONDS.toMillis(execution.getDurationNanos()), sql);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.wedding.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wedding.CacheAccess")
+@Label("Cache Access")
+@Category({"Wedding API", "Cache"})
+@Description("Lookup in an application cache")
+@StackTrace(false)
+public class CacheAccessEvent extends Event {
+
+    @Label("Cache")
+    private final String cache;
+
+    @Label("Key")
+    private final String key;
+
+    @Label("Hit")
+    private final boolean hit;
+
+    private CacheAccessEvent(String cache, String key, boolean hit) {
+        this.cache = cache;
+        this.key = key;
+        this.hit = hit;
+    }
+
+    // Instant event; the isEnabled check keeps the key's toString() off the hot path when not recording
+    public static void emit(String cache, Object key, boolean hit) {
+        if (EventHolder.PROBE.isEnabled()) {
+            new CacheAccessEvent(cache, String.valueOf(key), hit).commit();
+        }
+    }
+
+    private static class EventHolder {
+        private static final CacheAccessEvent PROBE = new CacheAccessEvent(null, null, false);
+    }
+}
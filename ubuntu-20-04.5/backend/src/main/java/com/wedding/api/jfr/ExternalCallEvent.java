@@ -0,0 +1,37 @@
+package com.wedding.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wedding.ExternalCall")
+@Label("External API Call")
+@Category({"Wedding API", "External"})
+@Description("Call to a third-party API (weather, maps)")
+@StackTrace(false)
+public class ExternalCallEvent extends Event {
+
+    @Label("Service")
+    private final String service;
+
+    @Label("Success")
+    private boolean success;
+
+    @Label("Error")
+    private String error;
+
+    public ExternalCallEvent(String service) {
+        this.service = service;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
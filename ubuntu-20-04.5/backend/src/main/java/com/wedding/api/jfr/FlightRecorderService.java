@@ -0,0 +1,115 @@
+package com.wedding.api.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Continuous flight recording using the JDK's "default" settings (~1% overhead) plus the
+// com.wedding.* events. Only the last max-age / max-size is kept on disk, and dump() copies
+// that window out to a standalone .jfr file for offline analysis in JDK Mission Control.
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    @Value("${wedding.jfr.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wedding.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${wedding.jfr.max-size-mb:200}")
+    private long maxSizeMb;
+
+    @Value("${wedding.jfr.dump-dir:/tmp/wedding-jfr}")
+    private String dumpDir;
+
+    @Value("${wedding.jfr.keep-dumps:5}")
+    private int keepDumps;
+
+    private Recording recording;
+    private final AtomicInteger dumpSequence = new AtomicInteger();
+
+    @PostConstruct
+    void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("wedding-continuous");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            recording.enable(GuestOperationEvent.class);
+            recording.enable(RsvpSubmitEvent.class);
+            recording.enable(StatsComputationEvent.class);
+            recording.enable(ExternalCallEvent.class);
+            recording.enable(CacheAccessEvent.class);
+            recording.start();
+            logger.info("Continuous flight recording started (max age {} min, max size {} MB)", maxAgeMinutes, maxSizeMb);
+        } catch (Exception e) {
+            logger.warn("Could not start continuous flight recording: {}", e.getMessage());
+            recording = null;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    // Writes the recording window retained so far to a new file and prunes old dumps
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        Path directory = Path.of(dumpDir);
+        Files.createDirectories(directory);
+        // Every dump gets its own file, so a caller still streaming an earlier one is never
+        // handed a file that is being overwritten; names still sort oldest to newest for pruning
+        Path file = directory.resolve(String.format("wedding-api-%s-%04d.jfr",
+                LocalDateTime.now().format(FILE_TIMESTAMP), dumpSequence.incrementAndGet()));
+        recording.dump(file);
+        pruneOldDumps(directory);
+        logger.info("Flight recording dumped to {}", file);
+        return file;
+    }
+
+    private void pruneOldDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(keepDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.wedding.api.jfr;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// GET /actuator/flightrecording - dumps the continuous recording and streams the .jfr file.
+// The dump is also kept under wedding.jfr.dump-dir. Guarded by DiagnosticsAuthFilter.
+@Component
+@WebEndpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump() throws IOException {
+        if (!flightRecorderService.isRecording()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(flightRecorderService.dump()));
+    }
+}
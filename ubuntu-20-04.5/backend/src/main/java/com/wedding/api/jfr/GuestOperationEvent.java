@@ -0,0 +1,40 @@
+package com.wedding.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wedding.GuestOperation")
+@Label("Guest Operation")
+@Category({"Wedding API", "Service"})
+@Description("Guest create/read/update/delete in GuestService")
+@StackTrace(false)
+public class GuestOperationEvent extends Event {
+
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Guest ID")
+    private long guestId;
+
+    @Label("Success")
+    private boolean success;
+
+    public GuestOperationEvent(String operation, Long guestId) {
+        this.operation = operation;
+        if (guestId != null) {
+            this.guestId = guestId;
+        }
+    }
+
+    public void setGuestId(long guestId) {
+        this.guestId = guestId;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+}
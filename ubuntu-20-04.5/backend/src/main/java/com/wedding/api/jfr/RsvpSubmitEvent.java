@@ -0,0 +1,34 @@
+package com.wedding.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wedding.RsvpSubmit")
+@Label("RSVP Submit")
+@Category({"Wedding API", "Service"})
+@Description("RSVP submission through RSVPService, including the outbox write")
+@StackTrace(false)
+public class RsvpSubmitEvent extends Event {
+
+    @Label("Guest ID")
+    private final long guestId;
+
+    @Label("Status")
+    private final String status;
+
+    @Label("Success")
+    private boolean success;
+
+    public RsvpSubmitEvent(Long guestId, String status) {
+        this.guestId = guestId != null ? guestId : 0;
+        this.status = status;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+}
@@ -0,0 +1,30 @@
+package com.wedding.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wedding.StatsComputation")
+@Label("Stats Computation")
+@Category({"Wedding API", "Service"})
+@Description("Aggregate statistics computed from the database (RSVP stats, dashboard)")
+@StackTrace(false)
+public class StatsComputationEvent extends Event {
+
+    @Label("Name")
+    private final String name;
+
+    @Label("Success")
+    private boolean success;
+
+    public StatsComputationEvent(String name) {
+        this.name = name;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+}
@@ -0,0 +1,154 @@
+package com.wedding.api.limiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Gradient-style concurrency limit estimated from request latency:
+// - latency is judged per route, since routes differ by orders of magnitude (a guest lookup takes
+//   a few ms, weather up to 2 s): each route keeps a short moving average of its RTT (~10
+//   samples) and a long one (~baselineWindow samples) that serves as its baseline. Comparing
+//   averages rather than a minimum keeps routes with naturally jittery latency from looking
+//   congested. The baseline follows falling latency at the full rate but rising latency twenty
+//   times slower, so sustained queueing isn't mistaken for the new normal while a genuinely
+//   slower backend is still followed eventually
+// - every sample yields that route's gradient (tolerance * long / short, clamped to [0.5, 1]);
+//   the limit follows a moving average of the gradients, growing by roughly sqrt(limit) while
+//   routes stay near their baselines and shrinking as queueing slows them down
+// - a request slower than dropRttNanos (e.g. one that sat waiting for a pool connection) is
+//   treated as a drop and cuts the limit multiplicatively, AIMD style
+// Each priority may only use its share of the limit, so low-priority work is shed first.
+// Completions of different routes update their averages in parallel (each route locks only
+// itself); the shared gradient and limit are updated under a short lock of their own.
+public class AdaptiveConcurrencyLimiter {
+
+    // Routes beyond this many share one set of statistics (a few more may slip in under a race)
+    private static final int MAX_ROUTES = 256;
+    private static final String OVERFLOW_ROUTE = "other";
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final long dropRttNanos;
+    private final double baselineDecay;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, RouteLatency> routes = new ConcurrentHashMap<>();
+
+    // Guarded by this; gradient is also read without the lock for the gauge
+    private double limit;
+    private volatile double gradient = 1.0;
+
+    private volatile int currentLimit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double rttTolerance, double backoffRatio, long dropRttNanos,
+                                      int baselineWindow) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.dropRttNanos = dropRttNanos;
+        this.baselineDecay = 1.0 / Math.max(1, baselineWindow);
+        this.limit = initialLimit;
+        this.currentLimit = initialLimit;
+    }
+
+    // Returns false when the priority's share of the limit is used up; the caller must then shed the request
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (currentLimit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(String route, long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(route, rttNanos, inFlightAtCompletion);
+    }
+
+    private void onSample(String route, long rttNanos, int inFlightAtCompletion) {
+        RouteLatency latency = routes.get(route);
+        if (latency == null) {
+            String key = routes.size() < MAX_ROUTES ? route : OVERFLOW_ROUTE;
+            latency = routes.computeIfAbsent(key, ignored -> new RouteLatency());
+        }
+        double ratio = latency.record(rttNanos, baselineDecay);
+        if (Double.isNaN(ratio)) {
+            // A route's first sample only establishes its baseline
+            return;
+        }
+        updateLimit(Math.max(0.5, Math.min(1.0, rttTolerance * ratio)), rttNanos, inFlightAtCompletion);
+    }
+
+    private synchronized void updateLimit(double sampleGradient, long rttNanos, int inFlightAtCompletion) {
+        gradient = gradient * 0.9 + sampleGradient * 0.1;
+
+        double newLimit;
+        if (rttNanos >= dropRttNanos) {
+            newLimit = limit * backoffRatio;
+        } else {
+            // Don't grow the limit while the application isn't using it
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        }
+
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        currentLimit = (int) limit;
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getGradient() {
+        return gradient;
+    }
+
+    public int getTrackedRoutes() {
+        return routes.size();
+    }
+
+    private static class RouteLatency {
+        private long samples;
+        private double shortRttNanos;
+        private double longRttNanos;
+
+        // Returns the long/short average ratio after the sample, or NaN for the route's first sample
+        synchronized double record(long rttNanos, double longDecay) {
+            if (samples++ == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return Double.NaN;
+            }
+            shortRttNanos = shortRttNanos * 0.9 + rttNanos * 0.1;
+            double decay = shortRttNanos > longRttNanos ? longDecay / 20 : longDecay;
+            longRttNanos = longRttNanos * (1 - decay) + rttNanos * decay;
+            // Latency dropped well below the baseline (e.g. a slow dependency recovered): catch up faster
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos = longRttNanos * 0.95 + shortRttNanos * 0.05;
+            }
+            return longRttNanos / shortRttNanos;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.wedding.api.limiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Admission control in front of the API: requests beyond the adaptive limit are rejected
+// straight away instead of queueing on the Hikari pool until connection-timeout.
+// Shed LOW requests get 429, anything else 503; both carry Retry-After.
+// Runs after Spring Boot's metrics filter, so rejections still show up in http.server.requests.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "wedding.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Route> criticalRoutes;
+    private final List<Route> lowRoutes;
+    private final List<Route> exemptRoutes;
+
+    @Value("${wedding.limiter.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${wedding.limiter.initial-limit:20}") int initialLimit,
+                                  @Value("${wedding.limiter.min-limit:4}") int minLimit,
+                                  @Value("${wedding.limiter.max-limit:200}") int maxLimit,
+                                  @Value("${wedding.limiter.smoothing:0.2}") double smoothing,
+                                  @Value("${wedding.limiter.rtt-tolerance:1.5}") double rttTolerance,
+                                  @Value("${wedding.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${wedding.limiter.drop-rtt-ms:5000}") long dropRttMs,
+                                  @Value("${wedding.limiter.baseline-window:500}") int baselineWindow,
+                                  @Value("${wedding.limiter.routes.critical:POST /api/rsvp/submit,GET /api/guests/**}") String[] critical,
+                                  @Value("${wedding.limiter.routes.low:* /api/analytics/**,* /api/performance/**}") String[] low,
+                                  @Value("${wedding.limiter.routes.exempt:GET /api/stats/stream}") String[] exempt) {
+        this.meterRegistry = meterRegistry;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing,
+                rttTolerance, backoffRatio, dropRttMs * 1_000_000, baselineWindow);
+        this.criticalRoutes = parseRoutes(critical);
+        this.lowRoutes = parseRoutes(low);
+        this.exemptRoutes = parseRoutes(exempt);
+
+        Gauge.builder("wedding.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("wedding.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("wedding.limiter.gradient", limiter, AdaptiveConcurrencyLimiter::getGradient)
+                .description("Smoothed ratio of per-route baseline to current latency (1 = no queueing)")
+                .register(meterRegistry);
+        Gauge.builder("wedding.limiter.routes", limiter, AdaptiveConcurrencyLimiter::getTrackedRoutes)
+                .description("Routes with their own latency baseline in the concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || matches(exemptRoutes, request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            meterRegistry.counter("wedding.limiter.requests", "priority", priority.name(), "outcome", "rejected").increment();
+            reject(response, priority);
+            return;
+        }
+
+        meterRegistry.counter("wedding.limiter.requests", "priority", priority.name(), "outcome", "accepted").increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(routeOf(request), System.nanoTime() - start);
+        }
+    }
+
+    // The handler's mapping pattern (/api/guests/{id}), set by Spring MVC once the request was dispatched
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmatched");
+    }
+
+    private RequestPriority classify(HttpServletRequest request) {
+        if (matches(criticalRoutes, request)) {
+            return RequestPriority.CRITICAL;
+        }
+        if (matches(lowRoutes, request)) {
+            return RequestPriority.LOW;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response, RequestPriority priority) throws IOException {
+        HttpStatus status = priority == RequestPriority.LOW ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Server is at capacity, retry later\",\"priority\":\"" + priority + "\"}");
+    }
+
+    private boolean matches(List<Route> routes, HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (Route route : routes) {
+            if ((route.method.equals("*") || route.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Entries look like "POST /api/rsvp/submit" or "* /api/analytics/**"; a bare pattern matches any method
+    private static List<Route> parseRoutes(String[] entries) {
+        List<Route> routes = new ArrayList<>();
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            routes.add(space < 0
+                    ? new Route("*", trimmed)
+                    : new Route(trimmed.substring(0, space), trimmed.substring(space + 1).trim()));
+        }
+        return routes;
+    }
+
+    private static class Route {
+        private final String method;
+        private final String pattern;
+
+        Route(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.wedding.api.limiter;
+
+// Share of the adaptive limit each class of request may occupy. When the limit is reached,
+// LOW is rejected first (at half the limit), then NORMAL; CRITICAL can use all of it.
+public enum RequestPriority {
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    LOW(0.5);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
@@ -0,0 +1,52 @@
+package com.wedding.api.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+// Exposes the lossy parts of the prod logging setup (logback-spring.xml): how full each async
+// appender queue is, and how many SQL log lines the sampler suppressed. Without the prod profile
+// there are no async appenders or samplers and nothing is registered.
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof AsyncAppenderBase<ILoggingEvent> async) {
+                Gauge.builder("wedding.logging.async.queue.size", async, AsyncAppenderBase::getNumberOfElementsInQueue)
+                        .description("Log events waiting in the async appender queue")
+                        .tag("appender", async.getName())
+                        .register(registry);
+                Gauge.builder("wedding.logging.async.queue.remaining", async, AsyncAppenderBase::getRemainingCapacity)
+                        .description("Free slots before the async appender starts discarding below WARN")
+                        .tag("appender", async.getName())
+                        .register(registry);
+            }
+        }
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SampledLogTurboFilter sampler) {
+                FunctionCounter.builder("wedding.logging.sampled.suppressed", sampler, SampledLogTurboFilter::getSuppressedCount)
+                        .description("Log calls dropped by sampling or rate limiting")
+                        .tag("logger", sampler.getLoggerName())
+                        .register(registry);
+            }
+        }
+    }
+}
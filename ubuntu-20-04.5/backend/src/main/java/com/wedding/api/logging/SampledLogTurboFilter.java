@@ -0,0 +1,80 @@
+package com.wedding.api.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logback turbo filter that thins out one chatty logger (Hibernate's statement log by default):
+// one call in sampleEvery gets through, and never more than maxPerSecond in any second.
+// WARN and above always pass. Turbo filters run before the logging event is built, so a
+// suppressed statement costs two counter increments instead of formatting and an appender call.
+public class SampledLogTurboFilter extends TurboFilter {
+
+    private String loggerName = "org.hibernate.SQL";
+    private int sampleEvery = 100;
+    private int maxPerSecond = 20;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check; only the actual log call is sampled
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !logger.getName().startsWith(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (calls.incrementAndGet() % sampleEvery != 0) {
+            suppressed.incrementAndGet();
+            return FilterReply.DENY;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        if (windowCount.incrementAndGet() > maxPerSecond) {
+            suppressed.incrementAndGet();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || loggerName.isBlank() || sampleEvery < 1 || maxPerSecond < 0) {
+            addError("SampledLogTurboFilter needs a loggerName, sampleEvery >= 1 and maxPerSecond >= 0");
+            return;
+        }
+        super.start();
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
@@ -0,0 +1,214 @@
+package com.wedding.api.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.NamingConvention;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.step.StepMeterRegistry;
+import io.micrometer.core.instrument.step.StepRegistryConfig;
+import io.micrometer.core.instrument.util.DoubleFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// StatsD export that aggregates in-process instead of sending a UDP line per meter update.
+// Counters and timers accumulate over one step. At each step boundary every meter that saw
+// activity is written as one line in DogStatsD format, and the lines are packed into
+// MTU-sized datagrams.
+// Timers and distribution summaries use the suffixes the Datadog agent gives its own
+// histograms (.count, .avg, .max, .median, .95percentile), so existing dashboards keep working.
+// Percentiles are computed per instance over the last one to two steps and can't be averaged
+// across pods; use .max/.avg for fleet views.
+public class AggregatingStatsdMeterRegistry extends StepMeterRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AggregatingStatsdMeterRegistry.class);
+
+    private final String host;
+    private final int port;
+    private final StatsdDatagramWriter writer;
+
+    public AggregatingStatsdMeterRegistry(String host, int port, Duration step, int maxPacketLength,
+                                          double[] percentiles, Clock clock) throws IOException {
+        super(stepConfig(step), clock);
+        this.host = host;
+        this.port = port;
+        this.writer = new StatsdDatagramWriter(maxPacketLength);
+
+        config().namingConvention(NamingConvention.dot);
+        // Percentile histograms rotate on their own clock, not on step boundaries. A window of two
+        // steps means the one read at publish time always covers the step that just ended.
+        config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER && id.getType() != Meter.Type.DISTRIBUTION_SUMMARY) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(config.getPercentiles() != null && config.getPercentiles().length > 0
+                                ? config.getPercentiles() : percentiles)
+                        .expiry(step.multipliedBy(2))
+                        .bufferLength(2)
+                        .build()
+                        .merge(config);
+            }
+        });
+
+        // The exporter's own loss is exported like any other lossy buffer
+        FunctionCounter.builder("wedding.metrics.statsd.packets", writer, StatsdDatagramWriter::getPackets)
+                .description("Datagrams sent by the aggregating StatsD exporter")
+                .register(this);
+        FunctionCounter.builder("wedding.metrics.statsd.lines", writer, StatsdDatagramWriter::getLines)
+                .description("Metric lines sent by the aggregating StatsD exporter")
+                .register(this);
+        FunctionCounter.builder("wedding.metrics.statsd.dropped", writer, StatsdDatagramWriter::getDropped)
+                .description("Metric lines that could not be sent (unresolved agent, oversized line, send failure)")
+                .register(this);
+
+        start(runnable -> {
+            Thread thread = new Thread(runnable, "statsd-aggregating-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static StepRegistryConfig stepConfig(Duration step) {
+        return new StepRegistryConfig() {
+            @Override
+            public String prefix() {
+                return "wedding.metrics.statsd";
+            }
+
+            @Override
+            public String get(String key) {
+                return null;
+            }
+
+            @Override
+            public Duration step() {
+                return step;
+            }
+        };
+    }
+
+    @Override
+    protected void publish() {
+        writer.begin(host, port);
+        for (Meter meter : getMeters()) {
+            // Percentile/histogram gauges derived from a timer go out with the timer's own lines
+            if (meter.getId().syntheticAssociation() != null) {
+                continue;
+            }
+            try {
+                meter.use(
+                        gauge -> gauge(meter.getId(), "", gauge.value()),
+                        counter -> count(meter.getId(), "", counter.count()),
+                        timer -> distribution(meter.getId(), timer.takeSnapshot(), true),
+                        summary -> distribution(meter.getId(), summary.takeSnapshot(), false),
+                        longTaskTimer -> {
+                            gauge(meter.getId(), ".active", longTaskTimer.activeTasks());
+                            gauge(meter.getId(), ".duration", longTaskTimer.duration(getBaseTimeUnit()));
+                        },
+                        timeGauge -> gauge(meter.getId(), "", timeGauge.value(getBaseTimeUnit())),
+                        functionCounter -> count(meter.getId(), "", functionCounter.count()),
+                        functionTimer -> {
+                            count(meter.getId(), ".count", functionTimer.count());
+                            if (functionTimer.count() > 0) {
+                                gauge(meter.getId(), ".avg", functionTimer.mean(getBaseTimeUnit()));
+                            }
+                        },
+                        other -> {
+                            for (Measurement measurement : other.measure()) {
+                                gauge(meter.getId(), "." + measurement.getStatistic().getTagValueRepresentation(),
+                                        measurement.getValue());
+                            }
+                        });
+            } catch (RuntimeException e) {
+                logger.debug("Skipped meter {} in StatsD export: {}", meter.getId().getName(), e.getMessage());
+            }
+        }
+        writer.flush();
+    }
+
+    private void distribution(Meter.Id id, HistogramSnapshot snapshot, boolean timer) {
+        // Nothing recorded this step: skip it entirely rather than sending zeros
+        if (snapshot.count() == 0) {
+            return;
+        }
+        TimeUnit unit = getBaseTimeUnit();
+        count(id, ".count", snapshot.count());
+        gauge(id, ".avg", timer ? snapshot.mean(unit) : snapshot.mean());
+        gauge(id, ".max", timer ? snapshot.max(unit) : snapshot.max());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            gauge(id, percentileSuffix(percentile.percentile()),
+                    timer ? percentile.value(unit) : percentile.value());
+        }
+    }
+
+    private static String percentileSuffix(double percentile) {
+        if (percentile == 0.5) {
+            return ".median";
+        }
+        return "." + DoubleFormat.wholeOrDecimal(percentile * 100).replace('.', '_') + "percentile";
+    }
+
+    private void count(Meter.Id id, String suffix, double value) {
+        if (value > 0) {
+            writer.write(line(id, suffix, value, "c"));
+        }
+    }
+
+    private void gauge(Meter.Id id, String suffix, double value) {
+        if (Double.isFinite(value)) {
+            writer.write(line(id, suffix, value, "g"));
+        }
+    }
+
+    private String line(Meter.Id id, String suffix, double value, String type) {
+        StringBuilder line = new StringBuilder(96)
+                .append(sanitize(getConventionName(id) + suffix))
+                .append(':').append(DoubleFormat.wholeOrDecimal(value))
+                .append('|').append(type);
+        List<Tag> tags = getConventionTags(id);
+        if (!tags.isEmpty()) {
+            line.append("|#");
+            for (int i = 0; i < tags.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(sanitize(tags.get(i).getKey())).append(':').append(sanitize(tags.get(i).getValue()));
+            }
+        }
+        return line.toString();
+    }
+
+    // Characters that delimit fields in the DogStatsD line format
+    private static String sanitize(String value) {
+        return value.replace(':', '_').replace('|', '_').replace(',', '_')
+                .replace('#', '_').replace('@', '_').replace('\n', '_');
+    }
+
+    @Override
+    protected TimeUnit getBaseTimeUnit() {
+        return TimeUnit.MILLISECONDS;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.debug("Closing StatsD channel failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.wedding.api.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+
+// Packs newline-separated StatsD lines into datagrams of at most maxPacketLength bytes.
+// Only the publishing thread uses it. Lines that can't be sent are counted as dropped, since
+// UDP gives no other signal that metrics went missing.
+class StatsdDatagramWriter implements Closeable {
+
+    private final int maxPacketLength;
+    private final ByteBuffer buffer;
+    private final DatagramChannel channel;
+
+    private InetSocketAddress address;
+    private int linesInBuffer;
+
+    private long packets;
+    private long lines;
+    private long dropped;
+
+    StatsdDatagramWriter(int maxPacketLength) throws IOException {
+        this.maxPacketLength = maxPacketLength;
+        this.buffer = ByteBuffer.allocate(maxPacketLength);
+        this.channel = DatagramChannel.open();
+    }
+
+    // Starts a publish cycle; the address is resolved per cycle so the agent can come up later or move
+    void begin(String host, int port) {
+        InetSocketAddress resolved = new InetSocketAddress(host, port);
+        this.address = resolved.isUnresolved() ? null : resolved;
+    }
+
+    void write(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (address == null || bytes.length > maxPacketLength) {
+            dropped++;
+            return;
+        }
+        int needed = linesInBuffer == 0 ? bytes.length : bytes.length + 1;
+        if (needed > buffer.remaining()) {
+            flush();
+            needed = bytes.length;
+        }
+        if (needed > bytes.length) {
+            buffer.put((byte) '\n');
+        }
+        buffer.put(bytes);
+        linesInBuffer++;
+    }
+
+    void flush() {
+        if (linesInBuffer == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            channel.send(buffer, address);
+            packets++;
+            lines += linesInBuffer;
+        } catch (IOException e) {
+            dropped += linesInBuffer;
+        } finally {
+            buffer.clear();
+            linesInBuffer = 0;
+        }
+    }
+
+    long getPackets() {
+        return packets;
+    }
+
+    long getLines() {
+        return lines;
+    }
+
+    long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
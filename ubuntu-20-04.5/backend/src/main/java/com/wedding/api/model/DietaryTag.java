@@ -0,0 +1,54 @@
+package com.wedding.api.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Normalised form of the free-text Guest.dietaryRestrictions column, for catering.
+// Anything non-empty that matches no keyword is tagged OTHER so it still gets read by a person.
+public enum DietaryTag {
+    VEGETARIAN("vegetarian", "veggie"),
+    VEGAN("vegan", "plant based"),
+    PESCATARIAN("pescatarian", "pescetarian"),
+    GLUTEN_FREE("gluten", "celiac", "coeliac"),
+    DAIRY_FREE("dairy", "lactose"),
+    NUT_ALLERGY("nut", "nuts", "peanut", "peanuts"),
+    SHELLFISH_ALLERGY("shellfish", "seafood"),
+    KOSHER("kosher"),
+    HALAL("halal"),
+    OTHER;
+
+    private static final Set<String> NO_RESTRICTION = Set.of("", "none", "no", "n/a", "na", "nothing", "no restrictions");
+
+    private final String[] keywords;
+
+    DietaryTag(String... keywords) {
+        this.keywords = keywords;
+    }
+
+    public static EnumSet<DietaryTag> parse(String text) {
+        EnumSet<DietaryTag> tags = EnumSet.noneOf(DietaryTag.class);
+        if (text == null) {
+            return tags;
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if (NO_RESTRICTION.contains(normalized)) {
+            return tags;
+        }
+
+        // Word-level match so "nut" doesn't fire on "nutrition"; "plant based" is matched as a phrase
+        String words = " " + normalized.replaceAll("[^a-z]+", " ").trim() + " ";
+        for (DietaryTag tag : values()) {
+            for (String keyword : tag.keywords) {
+                if (words.contains(" " + keyword + " ") || words.contains(" " + keyword + "free ")) {
+                    tags.add(tag);
+                    break;
+                }
+            }
+        }
+        if (tags.isEmpty()) {
+            tags.add(OTHER);
+        }
+        return tags;
+    }
+}
@@ -1,6 +1,8 @@
 package com.wedding.api.model;
 
+import com.wedding.api.event.EntityChangePublisher;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -8,13 +10,23 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "guests")
+@EntityListeners(EntityChangePublisher.class)
+// Email addresses are unique within a wedding, not across weddings
+@Table(name = "guests", uniqueConstraints = {
+        @UniqueConstraint(name = "ux_guests_wedding_email", columnNames = {"wedding_id", "email"})
+})
 public class Guest {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Owning wedding; Hibernate sets it from TenantContext on insert and filters queries by it
+    @TenantId
+    @Column(name = "wedding_id", nullable = false, updatable = false, length = 64)
+    @JsonProperty(value = "weddingId", access = JsonProperty.Access.READ_ONLY)
+    private String weddingId;
+    
     @NotBlank(message = "First name is required")
     @Size(max = 100, message = "First name must be less than 100 characters")
     @Column(name = "first_name", nullable = false, length = 100)
@@ -29,7 +41,7 @@ public class Guest {
     
     @NotBlank(message = "Email is required")
     @Email(message = "Please provide a valid email address")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
     @Size(max = 20, message = "Phone number must be less than 20 characters")
@@ -76,6 +88,14 @@ public class Guest {
         this.id = id;
     }
     
+    public String getWeddingId() {
+        return weddingId;
+    }
+    
+    public void setWeddingId(String weddingId) {
+        this.weddingId = weddingId;
+    }
+    
     public String getFirstName() {
         return firstName;
     }
@@ -0,0 +1,75 @@
+package com.wedding.api.model;
+
+import java.time.LocalDateTime;
+
+// Flat, read-only row of a guest and their RSVP (if any), built by a JPQL constructor
+// expression so the listing never loads entities or issues per-guest RSVP lookups.
+public class GuestRsvpView {
+
+    private final Long guestId;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final Boolean plusOne;
+    private final String dietaryRestrictions;
+    private final Long rsvpId;
+    private final RSVP.RSVPStatus rsvpStatus;
+    private final Boolean plusOneAttending;
+    private final LocalDateTime submittedAt;
+
+    public GuestRsvpView(Long guestId, String firstName, String lastName, String email, Boolean plusOne,
+                         String dietaryRestrictions, Long rsvpId, RSVP.RSVPStatus rsvpStatus,
+                         Boolean plusOneAttending, LocalDateTime submittedAt) {
+        this.guestId = guestId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.plusOne = plusOne;
+        this.dietaryRestrictions = dietaryRestrictions;
+        this.rsvpId = rsvpId;
+        this.rsvpStatus = rsvpStatus;
+        this.plusOneAttending = plusOneAttending;
+        this.submittedAt = submittedAt;
+    }
+
+    public Long getGuestId() {
+        return guestId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Boolean getPlusOne() {
+        return plusOne;
+    }
+
+    public String getDietaryRestrictions() {
+        return dietaryRestrictions;
+    }
+
+    public Long getRsvpId() {
+        return rsvpId;
+    }
+
+    // Null when the guest hasn't responded yet
+    public RSVP.RSVPStatus getRsvpStatus() {
+        return rsvpStatus;
+    }
+
+    public Boolean getPlusOneAttending() {
+        return plusOneAttending;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+}
@@ -0,0 +1,194 @@
+package com.wedding.api.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+// Side effect recorded in the same transaction as the business write and published later by OutboxRelay
+@Entity
+@Table(name = "outbox_messages")
+public class OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Owning wedding; Hibernate sets it from TenantContext on insert and filters queries by it
+    @TenantId
+    @Column(name = "wedding_id", nullable = false, updatable = false, length = 64)
+    private String weddingId;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    // Lease held by the relay that claimed the message; also used as the retry time after a failure
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    
+    // Names of the handlers that already succeeded, comma-separated; maintained by OutboxRelay
+    @Column(name = "delivered_handlers", columnDefinition = "TEXT", nullable = false)
+    private String deliveredHandlers = "";
+    
+    public enum Status {
+        PENDING, PUBLISHED, FAILED
+    }
+    
+    // Constructors
+    public OutboxMessage() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public OutboxMessage(String aggregateType, Long aggregateId, String eventType, String payload) {
+        this();
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getWeddingId() {
+        return weddingId;
+    }
+    
+    public void setWeddingId(String weddingId) {
+        this.weddingId = weddingId;
+    }
+    
+    public String getAggregateType() {
+        return aggregateType;
+    }
+    
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+    
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+    
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    
+    public String getLastError() {
+        return lastError;
+    }
+    
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+    
+    public String getDeliveredHandlers() {
+        return deliveredHandlers;
+    }
+    
+    public void setDeliveredHandlers(String deliveredHandlers) {
+        this.deliveredHandlers = deliveredHandlers;
+    }
+    
+    public boolean isDeliveredTo(String handlerName) {
+        return Arrays.asList(deliveredHandlers.split(",")).contains(handlerName);
+    }
+    
+    @Override
+    public String toString() {
+        return "OutboxMessage{" +
+                "id=" + id +
+                ", eventType='" + eventType + '\'' +
+                ", aggregateId=" + aggregateId +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -1,11 +1,14 @@
 package com.wedding.api.model;
 
+import com.wedding.api.event.EntityChangePublisher;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityChangePublisher.class)
 @Table(name = "rsvps")
 public class RSVP {
     
@@ -13,6 +16,12 @@ public class RSVP {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Owning wedding; Hibernate sets it from TenantContext on insert and filters queries by it
+    @TenantId
+    @Column(name = "wedding_id", nullable = false, updatable = false, length = 64)
+    @JsonProperty(value = "weddingId", access = JsonProperty.Access.READ_ONLY)
+    private String weddingId;
+    
     @NotNull(message = "Guest ID is required")
     @Column(name = "guest_id", nullable = false)
     @JsonProperty("guestId")
@@ -54,6 +63,14 @@ public class RSVP {
         this.id = id;
     }
     
+    public String getWeddingId() {
+        return weddingId;
+    }
+    
+    public void setWeddingId(String weddingId) {
+        this.weddingId = weddingId;
+    }
+    
     public Long getGuestId() {
         return guestId;
     }
@@ -1,12 +1,15 @@
 package com.wedding.api.model;
 
+import com.wedding.api.event.EntityChangePublisher;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityChangePublisher.class)
 @Table(name = "wedding_events")
 public class WeddingEvent {
     
@@ -14,6 +17,12 @@ public class WeddingEvent {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Owning wedding; Hibernate sets it from TenantContext on insert and filters queries by it
+    @TenantId
+    @Column(name = "wedding_id", nullable = false, updatable = false, length = 64)
+    @JsonProperty(value = "weddingId", access = JsonProperty.Access.READ_ONLY)
+    private String weddingId;
+    
     @NotBlank(message = "Event name is required")
     @Column(nullable = false, length = 200)
     private String name;
@@ -42,9 +51,15 @@ public class WeddingEvent {
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
     
+    // Bumped by every setter below; drives the event ETag and Last-Modified
+    @Column(name = "updated_at")
+    @JsonProperty("updatedAt")
+    private LocalDateTime updatedAt;
+    
     // Constructors
     public WeddingEvent() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
     }
     
     public WeddingEvent(String name, LocalDateTime eventDate) {
@@ -62,12 +77,21 @@ public class WeddingEvent {
         this.id = id;
     }
     
+    public String getWeddingId() {
+        return weddingId;
+    }
+    
+    public void setWeddingId(String weddingId) {
+        this.weddingId = weddingId;
+    }
+    
     public String getName() {
         return name;
     }
     
     public void setName(String name) {
         this.name = name;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public String getDescription() {
@@ -76,6 +100,7 @@ public class WeddingEvent {
     
     public void setDescription(String description) {
         this.description = description;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public LocalDateTime getEventDate() {
@@ -84,6 +109,7 @@ public class WeddingEvent {
     
     public void setEventDate(LocalDateTime eventDate) {
         this.eventDate = eventDate;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public String getVenueName() {
@@ -92,6 +118,7 @@ public class WeddingEvent {
     
     public void setVenueName(String venueName) {
         this.venueName = venueName;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public String getVenueAddress() {
@@ -100,6 +127,7 @@ public class WeddingEvent {
     
     public void setVenueAddress(String venueAddress) {
         this.venueAddress = venueAddress;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public String getDressCode() {
@@ -108,6 +136,7 @@ public class WeddingEvent {
     
     public void setDressCode(String dressCode) {
         this.dressCode = dressCode;
+        this.updatedAt = LocalDateTime.now();
     }
     
     public LocalDateTime getCreatedAt() {
@@ -118,6 +147,14 @@ public class WeddingEvent {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
     @Override
     public String toString() {
         return "WeddingEvent{" +
@@ -0,0 +1,36 @@
+package com.wedding.api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wedding.api.model.OutboxMessage;
+import com.wedding.api.model.RSVP;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AnalyticsOutboxHandler implements OutboxHandler {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public String getName() {
+        return "analytics";
+    }
+    
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxService.RSVP_SUBMITTED.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxMessage message) throws Exception {
+        RSVP rsvp = objectMapper.readValue(message.getPayload(), RSVP.class);
+        meterRegistry.counter("wedding.analytics.rsvp.committed",
+                "status", rsvp.getStatus().toString(),
+                "plusOne", String.valueOf(Boolean.TRUE.equals(rsvp.getPlusOneAttending()))).increment();
+    }
+}
@@ -0,0 +1,34 @@
+package com.wedding.api.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wedding.api.model.OutboxMessage;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.service.RSVPService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EmailOutboxHandler implements OutboxHandler {
+    
+    @Autowired
+    private RSVPService rsvpService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public String getName() {
+        return "email";
+    }
+    
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxService.RSVP_SUBMITTED.equals(eventType);
+    }
+    
+    @Override
+    public void handle(OutboxMessage message) throws Exception {
+        RSVP rsvp = objectMapper.readValue(message.getPayload(), RSVP.class);
+        rsvpService.sendConfirmationEmail(rsvp);
+    }
+}
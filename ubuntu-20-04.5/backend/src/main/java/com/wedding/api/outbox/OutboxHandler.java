@@ -0,0 +1,16 @@
+package com.wedding.api.outbox;
+
+import com.wedding.api.model.OutboxMessage;
+
+// Receives published outbox messages. Delivery is at-least-once: a handler that throws is
+// retried (handlers that already succeeded are not), and a relay that dies mid-batch repeats
+// whatever it had not recorded yet, so handlers must tolerate repeats.
+public interface OutboxHandler {
+    
+    // Short name used as a metric tag
+    String getName();
+    
+    boolean supports(String eventType);
+    
+    void handle(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,278 @@
+package com.wedding.api.outbox;
+
+import com.wedding.api.model.OutboxMessage;
+import com.wedding.api.tenant.TenantContext;
+import com.wedding.api.tenant.TenantShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains outbox_messages in batches. Claiming uses FOR UPDATE SKIP LOCKED inside a single
+// UPDATE that takes a time-limited lease, so several replicas can relay in parallel without
+// holding row locks while handlers run. A relay that dies mid-batch simply lets its lease
+// expire and another replica picks the messages up. Every tenant shard has its own outbox
+// table and is drained in turn; handlers run as the wedding that wrote the message.
+// Each handler's success is recorded on the row, so a retry only runs the handlers that have
+// not succeeded yet. Published rows are deleted after the retention period.
+@Service
+@ConditionalOnProperty(name = "wedding.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE outbox_messages SET locked_until = ?, attempts = attempts + 1 " +
+            "WHERE id IN (" +
+            "  SELECT id FROM outbox_messages " +
+            "  WHERE status = 'PENDING' AND (locked_until IS NULL OR locked_until < now()) " +
+            "  ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, wedding_id, aggregate_type, aggregate_id, event_type, payload, attempts, created_at, delivered_handlers";
+
+    private static final String PUBLISHED_SQL =
+            "UPDATE outbox_messages SET status = 'PUBLISHED', published_at = now(), locked_until = NULL, last_error = NULL " +
+            "WHERE id = ?";
+
+    private static final String HANDLER_DELIVERED_SQL =
+            "UPDATE outbox_messages SET delivered_handlers = delivered_handlers || ? || ',' WHERE id = ?";
+
+    private static final String FAILED_SQL =
+            "UPDATE outbox_messages SET status = ?, locked_until = ?, last_error = ? WHERE id = ?";
+
+    // Both parts are answered from the partial pending index; ids are issued in creation order,
+    // so the lowest pending id is the oldest message
+    private static final String LAG_SQL =
+            "SELECT (SELECT COUNT(*) FROM outbox_messages WHERE status = 'PENDING'), " +
+            "COALESCE((SELECT EXTRACT(EPOCH FROM (now() - created_at)) * 1000 FROM outbox_messages " +
+            "  WHERE status = 'PENDING' ORDER BY id LIMIT 1), 0)";
+
+    private static final String SWEEP_SQL =
+            "DELETE FROM outbox_messages WHERE id IN (" +
+            "  SELECT id FROM outbox_messages WHERE status = 'PUBLISHED' AND published_at < ? LIMIT ?)";
+
+    private static final RowMapper<OutboxMessage> CLAIMED_ROW = (rs, rowNum) -> {
+        OutboxMessage message = new OutboxMessage();
+        message.setId(rs.getLong("id"));
+        message.setWeddingId(rs.getString("wedding_id"));
+        message.setAggregateType(rs.getString("aggregate_type"));
+        message.setAggregateId(rs.getObject("aggregate_id", Long.class));
+        message.setEventType(rs.getString("event_type"));
+        message.setPayload(rs.getString("payload"));
+        message.setAttempts(rs.getInt("attempts"));
+        message.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        message.setDeliveredHandlers(rs.getString("delivered_handlers"));
+        return message;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<OutboxHandler> handlers;
+
+    @Autowired
+    private TenantShards tenantShards;
+
+    @Value("${wedding.outbox.relay.batch-size:50}")
+    private int batchSize;
+
+    @Value("${wedding.outbox.relay.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${wedding.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${wedding.outbox.relay.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    @Value("${wedding.outbox.retention.published-hours:72}")
+    private long publishedRetentionHours;
+
+    @Value("${wedding.outbox.retention.delete-batch-size:1000}")
+    private int deleteBatchSize;
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService workers;
+
+    private final AtomicLong pendingMessages = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+    private final AtomicInteger unmeasuredShards = new AtomicInteger();
+
+    public OutboxRelay(MeterRegistry meterRegistry,
+                       @Value("${wedding.outbox.relay.parallelism:8}") int parallelism) {
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("wedding.outbox.pending", pendingMessages, AtomicLong::get)
+                .description("Outbox messages waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("wedding.outbox.lag", oldestPendingAgeMs, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox message")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("wedding.outbox.lag.failed.shards", unmeasuredShards, AtomicInteger::get)
+                .description("Shards left out of the last outbox lag measurement because the query failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        for (String shard : tenantShards.getShardNames()) {
+            TenantContext.runOnShard(shard, () -> relayShard(shard));
+        }
+    }
+
+    // Separate, slower cadence than the poll: the gauges don't need 500 ms resolution
+    @Scheduled(fixedDelayString = "${wedding.outbox.relay.lag-interval-ms:10000}")
+    public void measureLag() {
+        updateLag();
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.outbox.retention.sweep-interval-ms:600000}",
+               initialDelayString = "${wedding.outbox.retention.sweep-interval-ms:600000}")
+    public void sweepPublished() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(publishedRetentionHours));
+        for (String shard : tenantShards.getShardNames()) {
+            try {
+                TenantContext.runOnShard(shard, () -> {
+                    // Small deletes, each its own statement, so the sweep never holds many row locks
+                    int deleted;
+                    do {
+                        deleted = jdbcTemplate.update(SWEEP_SQL, cutoff, deleteBatchSize);
+                        meterRegistry.counter("wedding.outbox.swept").increment(deleted);
+                    } while (deleted == deleteBatchSize);
+                });
+            } catch (Exception e) {
+                logger.warn("Outbox retention sweep on shard {} failed: {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private void relayShard(String shard) {
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = claimBatch();
+                publishBatch(shard, batch);
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            logger.warn("Outbox relay pass on shard {} failed: {}", shard, e.getMessage());
+        }
+    }
+
+    private List<OutboxMessage> claimBatch() {
+        Timestamp leaseEnd = Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds));
+        List<OutboxMessage> batch = jdbcTemplate.query(CLAIM_SQL, CLAIMED_ROW, leaseEnd, batchSize);
+        if (!batch.isEmpty()) {
+            meterRegistry.counter("wedding.outbox.claimed").increment(batch.size());
+        }
+        return batch;
+    }
+
+    // Messages in a batch are handled concurrently; the pass waits for all of them before claiming more
+    private void publishBatch(String shard, List<OutboxMessage> batch) {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            inFlight.add(CompletableFuture.runAsync(() -> TenantContext.runOnShard(shard,
+                    () -> TenantContext.runAs(message.getWeddingId(), () -> publish(message))), workers));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void publish(OutboxMessage message) {
+        String currentHandler = "none";
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.supports(message.getEventType()) && !message.isDeliveredTo(handler.getName())) {
+                    currentHandler = handler.getName();
+                    handler.handle(message);
+                    jdbcTemplate.update(HANDLER_DELIVERED_SQL, handler.getName(), message.getId());
+                }
+            }
+            jdbcTemplate.update(PUBLISHED_SQL, message.getId());
+
+            counter("wedding.outbox.published", message.getEventType()).increment();
+            Timer.builder("wedding.outbox.delivery.latency")
+                    .description("Time from outbox write to successful publish")
+                    .tag("event", message.getEventType())
+                    .register(meterRegistry)
+                    .record(Duration.between(message.getCreatedAt(), LocalDateTime.now()));
+        } catch (Exception e) {
+            boolean giveUp = message.getAttempts() >= maxAttempts;
+            long backoffSeconds = Math.min(maxBackoffSeconds, 1L << Math.min(message.getAttempts(), 20));
+            jdbcTemplate.update(FAILED_SQL,
+                    giveUp ? OutboxMessage.Status.FAILED.name() : OutboxMessage.Status.PENDING.name(),
+                    Timestamp.valueOf(LocalDateTime.now().plusSeconds(backoffSeconds)),
+                    currentHandler + ": " + e.getMessage(),
+                    message.getId());
+
+            meterRegistry.counter("wedding.outbox.failures",
+                    "event", message.getEventType(),
+                    "handler", currentHandler,
+                    "final", String.valueOf(giveUp)).increment();
+            logger.warn("Outbox message {} failed in handler {} (attempt {}{}): {}", message.getId(), currentHandler,
+                    message.getAttempts(), giveUp ? ", giving up" : "", e.getMessage());
+        }
+    }
+
+    // Totals over all shards: pending messages are summed, the oldest age is the worst shard's.
+    // A shard whose query fails is left out and counted, so the other shards still report.
+    private void updateLag() {
+        long pending = 0;
+        long oldestAgeMs = 0;
+        int failedShards = 0;
+        for (String shard : tenantShards.getShardNames()) {
+            long[] shardLag = new long[2];
+            try {
+                TenantContext.runOnShard(shard, () -> jdbcTemplate.query(LAG_SQL, rs -> {
+                    shardLag[0] = rs.getLong(1);
+                    shardLag[1] = (long) rs.getDouble(2);
+                }));
+            } catch (Exception e) {
+                logger.warn("Failed to measure outbox lag on shard {}: {}", shard, e.getMessage());
+                failedShards++;
+                continue;
+            }
+            pending += shardLag[0];
+            oldestAgeMs = Math.max(oldestAgeMs, shardLag[1]);
+        }
+        pendingMessages.set(pending);
+        oldestPendingAgeMs.set(oldestAgeMs);
+        unmeasuredShards.set(failedShards);
+    }
+
+    private Counter counter(String name, String eventType) {
+        return meterRegistry.counter(name, "event", eventType);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package com.wedding.api.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wedding.api.model.OutboxMessage;
+import com.wedding.api.repository.OutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxService {
+    
+    public static final String RSVP_SUBMITTED = "rsvp.submitted";
+    
+    @Autowired
+    private OutboxRepository outboxRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Must run inside the business transaction so the message commits (or rolls back) with it
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxMessage record(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            return outboxRepository.save(new OutboxMessage(aggregateType, aggregateId, eventType, json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload for " + eventType, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.wedding.api.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+// Custom fragment of GuestRepository for field-selective reads (GET /api/guests?fields=...)
+public interface GuestProjectionRepository {
+
+    // Pages of guests holding only the requested columns, keyed by their JSON property names.
+    // The search term matches first name, last name or email like findBySearchTerm.
+    Page<Map<String, Object>> findProjected(List<String> fields, String search, Pageable pageable);
+}
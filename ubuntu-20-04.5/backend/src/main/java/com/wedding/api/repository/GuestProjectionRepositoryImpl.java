@@ -0,0 +1,122 @@
+package com.wedding.api.repository;
+
+import com.wedding.api.model.Guest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Builds a scalar tuple query selecting only the requested columns. Nothing is loaded as a
+// managed entity, so the wide TEXT columns are never read unless asked for and Hibernate keeps
+// no dirty-checking snapshot for the rows.
+public class GuestProjectionRepositoryImpl implements GuestProjectionRepository {
+
+    // Guest attributes that may be requested; also the JSON property names of the full entity
+    public static final Set<String> SELECTABLE_FIELDS = Set.of(
+            "id", "firstName", "lastName", "email", "phone", "address",
+            "plusOne", "dietaryRestrictions", "createdAt", "updatedAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findProjected(List<String> fields, String search, Pageable pageable) {
+        List<String> columns = new ArrayList<>();
+        // id is always returned so rows can be linked back to /api/guests/{id}
+        columns.add("id");
+        for (String field : fields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new RuntimeException("Unknown guest field: " + field + ". Valid fields are: " + SELECTABLE_FIELDS);
+            }
+            if (!columns.contains(field)) {
+                columns.add(field);
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Guest> guest = query.from(Guest.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(guest.get(column).alias(column));
+        }
+        query.multiselect(selections);
+        Predicate filter = searchPredicate(cb, guest, search);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.orderBy(orders(cb, guest, pageable.getSort()));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                row.put(column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+
+        // Skip the COUNT when this page already shows where the results end
+        long total;
+        if (pageable.getOffset() == 0 && rows.size() < pageable.getPageSize()) {
+            total = rows.size();
+        } else {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Guest> countRoot = countQuery.from(Guest.class);
+            countQuery.select(cb.count(countRoot));
+            Predicate countFilter = searchPredicate(cb, countRoot, search);
+            if (countFilter != null) {
+                countQuery.where(countFilter);
+            }
+            total = entityManager.createQuery(countQuery).getSingleResult();
+        }
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    private Predicate searchPredicate(CriteriaBuilder cb, Root<Guest> guest, String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + search.trim().toLowerCase() + "%";
+        return cb.or(
+                cb.like(cb.lower(guest.get("firstName")), pattern),
+                cb.like(cb.lower(guest.get("lastName")), pattern),
+                cb.like(cb.lower(guest.get("email")), pattern));
+    }
+
+    // Honours ?sort= for selectable fields and always ends on id for a stable order
+    private List<Order> orders(CriteriaBuilder cb, Root<Guest> guest, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            if (!SELECTABLE_FIELDS.contains(order.getProperty())) {
+                throw new RuntimeException("Cannot sort guests by: " + order.getProperty());
+            }
+            orders.add(order.isAscending() ? cb.asc(guest.get(order.getProperty())) : cb.desc(guest.get(order.getProperty())));
+            hasId |= order.getProperty().equals("id");
+        }
+        if (!hasId) {
+            orders.add(cb.asc(guest.get("id")));
+        }
+        return orders;
+    }
+}
@@ -1,6 +1,7 @@
 package com.wedding.api.repository;
 
 import com.wedding.api.model.Guest;
+import com.wedding.api.model.GuestRsvpView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface GuestRepository extends JpaRepository<Guest, Long> {
+public interface GuestRepository extends JpaRepository<Guest, Long>, GuestProjectionRepository {
     
     Optional<Guest> findByEmail(String email);
     
@@ -24,14 +25,32 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
     
     List<Guest> findByPlusOneTrue();
     
-    @Query(value = "SELECT * FROM guests ORDER BY RANDOM() LIMIT 10", nativeQuery = true)
+    // Native queries are not covered by Hibernate's tenant filter, so they name the wedding themselves
+    String CURRENT_WEDDING = ":#{T(com.wedding.api.tenant.TenantContext).current()}";
+    
+    @Query(value = "SELECT * FROM guests WHERE wedding_id = " + CURRENT_WEDDING + " ORDER BY RANDOM() LIMIT 10", nativeQuery = true)
     List<Guest> findRandomGuests();
     
     // Intentionally slow query for APM testing
     @Query(value = "SELECT g.* FROM guests g " +
            "CROSS JOIN generate_series(1, 1000) " +
+           "WHERE g.wedding_id = " + CURRENT_WEDDING + " " +
            "ORDER BY g.id LIMIT 100", nativeQuery = true)
     List<Guest> findGuestsWithSlowQuery();
     
     long countByPlusOneTrue();
+    
+    // Guests with their RSVP in one statement; RSVP.guestId has no mapped association, hence the ad-hoc join
+    String GUEST_RSVP_VIEW = "SELECT new com.wedding.api.model.GuestRsvpView(" +
+           "g.id, g.firstName, g.lastName, g.email, g.plusOne, g.dietaryRestrictions, " +
+           "r.id, r.status, r.plusOneAttending, r.submittedAt) " +
+           "FROM Guest g LEFT JOIN RSVP r ON r.guestId = g.id ";
+    
+    // Keyset page: rows after the cursor, so deep pages cost the same as the first one
+    @Query(GUEST_RSVP_VIEW + "WHERE g.id > :afterId ORDER BY g.id")
+    List<GuestRsvpView> findGuestsWithRsvpAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(value = GUEST_RSVP_VIEW + "ORDER BY g.id",
+           countQuery = "SELECT COUNT(g) FROM Guest g")
+    Page<GuestRsvpView> findGuestsWithRsvp(Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.wedding.api.repository;
+
+import com.wedding.api.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+}
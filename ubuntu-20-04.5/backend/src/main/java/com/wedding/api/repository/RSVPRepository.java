@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,8 @@ public interface RSVPRepository extends JpaRepository<RSVP, Long> {
     
     Optional<RSVP> findByGuestId(Long guestId);
     
+    List<RSVP> findByGuestIdIn(Collection<Long> guestIds);
+    
     List<RSVP> findByStatus(RSVP.RSVPStatus status);
     
     @Query("SELECT COUNT(r) FROM RSVP r WHERE r.status = :status")
@@ -0,0 +1,142 @@
+package com.wedding.api.seating;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// State of one seating run as seen by pollers. Solver threads only touch the atomics;
+// status/result are written once by whichever thread finishes the job.
+public class SeatingJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final String id;
+    private final String weddingId;
+    private final SeatingProblem problem;
+    private final int restarts;
+    private final long iterationsPerRestart;
+    private final long timeLimitMs;
+    private final long startedNanos = System.nanoTime();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final AtomicLong iterationsDone = new AtomicLong();
+    final AtomicLong bestCost = new AtomicLong(Long.MAX_VALUE);
+
+    private volatile Status status = Status.RUNNING;
+    private volatile int[] assignment;
+    private volatile String error;
+    private volatile long durationMs;
+    private volatile LocalDateTime finishedAt;
+
+    SeatingJob(String id, String weddingId, SeatingProblem problem, int restarts, long iterationsPerRestart, long timeLimitMs) {
+        this.id = id;
+        this.weddingId = weddingId;
+        this.problem = problem;
+        this.restarts = restarts;
+        this.iterationsPerRestart = iterationsPerRestart;
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getWeddingId() {
+        return weddingId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    SeatingProblem getProblem() {
+        return problem;
+    }
+
+    int getRestarts() {
+        return restarts;
+    }
+
+    long getIterationsPerRestart() {
+        return iterationsPerRestart;
+    }
+
+    long getDeadlineNanos() {
+        return startedNanos + timeLimitMs * 1_000_000;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    long getDurationMs() {
+        return durationMs;
+    }
+
+    // Returns false when the job had already finished
+    boolean cancel() {
+        cancelled.set(true);
+        return !isFinished();
+    }
+
+    synchronized void finish(Status finalStatus, int[] finalAssignment, String errorMessage) {
+        if (isFinished()) {
+            return;
+        }
+        this.assignment = finalAssignment;
+        this.error = errorMessage;
+        this.durationMs = (System.nanoTime() - startedNanos) / 1_000_000;
+        this.finishedAt = LocalDateTime.now();
+        this.status = finalStatus;
+    }
+
+    // Progress is the larger of iterations used and time used, since either budget can end the run
+    public double getProgress() {
+        if (isFinished()) {
+            return 1.0;
+        }
+        double byIterations = (double) iterationsDone.get() / ((double) iterationsPerRestart * restarts);
+        double byTime = (double) (System.nanoTime() - startedNanos) / (timeLimitMs * 1_000_000.0);
+        return Math.min(0.99, Math.max(byIterations, byTime));
+    }
+
+    public Map<String, Object> toMap(boolean includeTables) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", id);
+        view.put("status", status);
+        view.put("progress", Math.round(getProgress() * 1000) / 1000.0);
+        view.put("guests", problem.getPartyCount());
+        view.put("seats", problem.getSeatCount());
+        view.put("capacity", problem.getTotalCapacity());
+        view.put("tables", problem.tableCount);
+        view.put("restarts", restarts);
+        view.put("iterations", iterationsDone.get());
+        long best = bestCost.get();
+        view.put("bestCost", best == Long.MAX_VALUE ? null : best);
+        view.put("createdAt", createdAt);
+        if (isFinished()) {
+            view.put("finishedAt", finishedAt);
+            view.put("durationMs", durationMs);
+        }
+        if (error != null) {
+            view.put("error", error);
+        }
+        int[] result = assignment;
+        if (result != null) {
+            view.put("violations", problem.summarize(result));
+            if (includeTables) {
+                view.put("seating", problem.tables(result));
+            }
+        }
+        return view;
+    }
+}
@@ -0,0 +1,270 @@
+package com.wedding.api.seating;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable, array-based view of one seating problem, built once per job and shared by all
+// solver threads. A "party" is a guest plus their plus-one, who always sit together.
+//
+// Every constraint is a group of parties with a weight:
+// - together groups cost weight for each extra table the group is spread over
+// - apart groups cost weight for each pair of members sharing a table
+// Dietary restrictions are modelled as low-weight together groups, so equal diets cluster
+// only when that doesn't break anything else. Overfilled tables cost CAPACITY_WEIGHT per seat.
+public class SeatingProblem {
+
+    public static final int CAPACITY_WEIGHT = 10_000;
+    public static final int DEFAULT_CONSTRAINT_WEIGHT = 100;
+    public static final int DIETARY_WEIGHT = 1;
+
+    final int partyCount;
+    final long[] guestIds;
+    final String[] guestNames;
+    final String[] dietaryRestrictions;
+    final int[] partySize;
+
+    final int tableCount;
+    final String[] tableNames;
+    final int[] capacity;
+
+    final int groupCount;
+    final int[][] groupMembers;
+    final boolean[] groupApart;
+    final int[] groupWeight;
+    final boolean[] groupDietary;
+    // Groups each party belongs to
+    final int[][] partyGroups;
+
+    private SeatingProblem(Builder builder) {
+        this.partyCount = builder.guestIds.size();
+        this.guestIds = builder.guestIds.stream().mapToLong(Long::longValue).toArray();
+        this.guestNames = builder.guestNames.toArray(new String[0]);
+        this.dietaryRestrictions = builder.dietaryRestrictions.toArray(new String[0]);
+        this.partySize = builder.partySizes.stream().mapToInt(Integer::intValue).toArray();
+
+        this.tableCount = builder.tableNames.size();
+        this.tableNames = builder.tableNames.toArray(new String[0]);
+        this.capacity = builder.capacities.stream().mapToInt(Integer::intValue).toArray();
+
+        this.groupCount = builder.groups.size();
+        this.groupMembers = new int[groupCount][];
+        this.groupApart = new boolean[groupCount];
+        this.groupWeight = new int[groupCount];
+        this.groupDietary = new boolean[groupCount];
+        List<List<Integer>> membership = new ArrayList<>();
+        for (int i = 0; i < partyCount; i++) {
+            membership.add(new ArrayList<>());
+        }
+        for (int g = 0; g < groupCount; g++) {
+            Builder.Group group = builder.groups.get(g);
+            groupMembers[g] = group.members.stream().mapToInt(Integer::intValue).toArray();
+            groupApart[g] = group.apart;
+            groupWeight[g] = group.weight;
+            groupDietary[g] = group.dietary;
+            for (int member : groupMembers[g]) {
+                membership.get(member).add(g);
+            }
+        }
+        this.partyGroups = new int[partyCount][];
+        for (int i = 0; i < partyCount; i++) {
+            partyGroups[i] = membership.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public int getPartyCount() {
+        return partyCount;
+    }
+
+    public int getSeatCount() {
+        int seats = 0;
+        for (int size : partySize) {
+            seats += size;
+        }
+        return seats;
+    }
+
+    public int getTotalCapacity() {
+        int total = 0;
+        for (int c : capacity) {
+            total += c;
+        }
+        return total;
+    }
+
+    // Full (non-incremental) evaluation, used for reporting and as a check on the solver's bookkeeping
+    public long cost(int[] tableOf) {
+        return describe(tableOf).cost;
+    }
+
+    public Map<String, Object> summarize(int[] tableOf) {
+        Evaluation evaluation = describe(tableOf);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("cost", evaluation.cost);
+        summary.put("overCapacitySeats", evaluation.overCapacitySeats);
+        summary.put("splitTogetherGroups", evaluation.splitTogetherGroups);
+        summary.put("apartPairsSeatedTogether", evaluation.apartPairsTogether);
+        summary.put("feasible", evaluation.overCapacitySeats == 0
+                && evaluation.splitTogetherGroups == 0 && evaluation.apartPairsTogether == 0);
+        return summary;
+    }
+
+    public List<Map<String, Object>> tables(int[] tableOf) {
+        List<List<Integer>> seated = new ArrayList<>();
+        for (int t = 0; t < tableCount; t++) {
+            seated.add(new ArrayList<>());
+        }
+        for (int i = 0; i < partyCount; i++) {
+            seated.get(tableOf[i]).add(i);
+        }
+
+        List<Map<String, Object>> tables = new ArrayList<>();
+        for (int t = 0; t < tableCount; t++) {
+            int seats = 0;
+            List<Map<String, Object>> guests = new ArrayList<>();
+            for (int party : seated.get(t)) {
+                seats += partySize[party];
+                Map<String, Object> guest = new LinkedHashMap<>();
+                guest.put("guestId", guestIds[party]);
+                guest.put("name", guestNames[party]);
+                guest.put("seats", partySize[party]);
+                guest.put("dietaryRestrictions", dietaryRestrictions[party]);
+                guests.add(guest);
+            }
+            Map<String, Object> table = new LinkedHashMap<>();
+            table.put("table", tableNames[t]);
+            table.put("capacity", capacity[t]);
+            table.put("seated", seats);
+            table.put("guests", guests);
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    private Evaluation describe(int[] tableOf) {
+        Evaluation evaluation = new Evaluation();
+        int[] load = new int[tableCount];
+        for (int i = 0; i < partyCount; i++) {
+            load[tableOf[i]] += partySize[i];
+        }
+        for (int t = 0; t < tableCount; t++) {
+            int over = Math.max(0, load[t] - capacity[t]);
+            evaluation.overCapacitySeats += over;
+            evaluation.cost += (long) over * CAPACITY_WEIGHT;
+        }
+
+        int[] counts = new int[tableCount];
+        for (int g = 0; g < groupCount; g++) {
+            java.util.Arrays.fill(counts, 0);
+            for (int member : groupMembers[g]) {
+                counts[tableOf[member]]++;
+            }
+            if (groupApart[g]) {
+                for (int c : counts) {
+                    long pairs = (long) c * (c - 1) / 2;
+                    evaluation.apartPairsTogether += pairs;
+                    evaluation.cost += pairs * groupWeight[g];
+                }
+            } else {
+                int used = 0;
+                for (int c : counts) {
+                    if (c > 0) {
+                        used++;
+                    }
+                }
+                if (used > 1 && !groupDietary[g]) {
+                    evaluation.splitTogetherGroups++;
+                }
+                evaluation.cost += (long) (used - 1) * groupWeight[g];
+            }
+        }
+        return evaluation;
+    }
+
+    private static class Evaluation {
+        long cost;
+        int overCapacitySeats;
+        int splitTogetherGroups;
+        long apartPairsTogether;
+    }
+
+    public static class Builder {
+        private final List<Long> guestIds = new ArrayList<>();
+        private final List<String> guestNames = new ArrayList<>();
+        private final List<String> dietaryRestrictions = new ArrayList<>();
+        private final List<Integer> partySizes = new ArrayList<>();
+        private final Map<Long, Integer> partyIndex = new LinkedHashMap<>();
+        private final List<String> tableNames = new ArrayList<>();
+        private final List<Integer> capacities = new ArrayList<>();
+        private final List<Group> groups = new ArrayList<>();
+        private final Map<String, List<Integer>> dietaryGroups = new LinkedHashMap<>();
+
+        public Builder addParty(long guestId, String name, int size, String dietaryRestriction) {
+            int index = guestIds.size();
+            partyIndex.put(guestId, index);
+            guestIds.add(guestId);
+            guestNames.add(name);
+            partySizes.add(size);
+            dietaryRestrictions.add(dietaryRestriction);
+            if (dietaryRestriction != null && !dietaryRestriction.isBlank()) {
+                dietaryGroups.computeIfAbsent(dietaryRestriction.trim().toLowerCase(), key -> new ArrayList<>()).add(index);
+            }
+            return this;
+        }
+
+        public Builder addTable(String name, int tableCapacity) {
+            tableNames.add(name);
+            capacities.add(tableCapacity);
+            return this;
+        }
+
+        // Unknown guest ids are ignored (e.g. guests excluded because they declined)
+        public Builder addConstraint(boolean apart, List<Long> memberGuestIds, int weight) {
+            List<Integer> members = new ArrayList<>();
+            for (Long guestId : memberGuestIds) {
+                Integer index = partyIndex.get(guestId);
+                if (index != null && !members.contains(index)) {
+                    members.add(index);
+                }
+            }
+            if (members.size() > 1) {
+                groups.add(new Group(members, apart, weight, false));
+            }
+            return this;
+        }
+
+        public int tableCount() {
+            return tableNames.size();
+        }
+
+        public boolean hasGuest(long guestId) {
+            return partyIndex.containsKey(guestId);
+        }
+
+        public SeatingProblem build(boolean groupDietary) {
+            if (groupDietary) {
+                for (List<Integer> members : dietaryGroups.values()) {
+                    if (members.size() > 1) {
+                        groups.add(new Group(members, false, DIETARY_WEIGHT, true));
+                    }
+                }
+            }
+            return new SeatingProblem(this);
+        }
+
+        private static class Group {
+            private final List<Integer> members;
+            private final boolean apart;
+            private final int weight;
+            private final boolean dietary;
+
+            Group(List<Integer> members, boolean apart, int weight, boolean dietary) {
+                this.members = members;
+                this.apart = apart;
+                this.weight = weight;
+                this.dietary = dietary;
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.wedding.api.seating;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of POST /api/seating/jobs
+public class SeatingRequest {
+
+    // Either list tables explicitly or give tableCount x tableCapacity
+    private List<TableSpec> tables = new ArrayList<>();
+    private Integer tableCount;
+    private Integer tableCapacity;
+
+    private List<ConstraintSpec> constraints = new ArrayList<>();
+
+    // Leave out guests whose RSVP is not_attending
+    private boolean excludeDeclined = true;
+
+    // Seat guests with the same dietary restriction together where it costs nothing else
+    private boolean groupDietaryRestrictions = true;
+
+    // Solver budget: restarts default to one per core
+    private Integer restarts;
+    private Long timeLimitMs;
+    private Long iterationsPerRestart;
+
+    public static class TableSpec {
+        private String name;
+        private int capacity;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    public enum ConstraintType {
+        TOGETHER, APART
+    }
+
+    public static class ConstraintSpec {
+        private ConstraintType type;
+        private List<Long> guestIds = new ArrayList<>();
+        // Relative importance; hard-ish constraints should use a large weight
+        private Integer weight;
+
+        public ConstraintType getType() {
+            return type;
+        }
+
+        public void setType(ConstraintType type) {
+            this.type = type;
+        }
+
+        public List<Long> getGuestIds() {
+            return guestIds;
+        }
+
+        public void setGuestIds(List<Long> guestIds) {
+            this.guestIds = guestIds;
+        }
+
+        public Integer getWeight() {
+            return weight;
+        }
+
+        public void setWeight(Integer weight) {
+            this.weight = weight;
+        }
+    }
+
+    public List<TableSpec> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<TableSpec> tables) {
+        this.tables = tables;
+    }
+
+    public Integer getTableCount() {
+        return tableCount;
+    }
+
+    public void setTableCount(Integer tableCount) {
+        this.tableCount = tableCount;
+    }
+
+    public Integer getTableCapacity() {
+        return tableCapacity;
+    }
+
+    public void setTableCapacity(Integer tableCapacity) {
+        this.tableCapacity = tableCapacity;
+    }
+
+    public List<ConstraintSpec> getConstraints() {
+        return constraints;
+    }
+
+    public void setConstraints(List<ConstraintSpec> constraints) {
+        this.constraints = constraints;
+    }
+
+    public boolean isExcludeDeclined() {
+        return excludeDeclined;
+    }
+
+    public void setExcludeDeclined(boolean excludeDeclined) {
+        this.excludeDeclined = excludeDeclined;
+    }
+
+    public boolean isGroupDietaryRestrictions() {
+        return groupDietaryRestrictions;
+    }
+
+    public void setGroupDietaryRestrictions(boolean groupDietaryRestrictions) {
+        this.groupDietaryRestrictions = groupDietaryRestrictions;
+    }
+
+    public Integer getRestarts() {
+        return restarts;
+    }
+
+    public void setRestarts(Integer restarts) {
+        this.restarts = restarts;
+    }
+
+    public Long getTimeLimitMs() {
+        return timeLimitMs;
+    }
+
+    public void setTimeLimitMs(Long timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    public Long getIterationsPerRestart() {
+        return iterationsPerRestart;
+    }
+
+    public void setIterationsPerRestart(Long iterationsPerRestart) {
+        this.iterationsPerRestart = iterationsPerRestart;
+    }
+}
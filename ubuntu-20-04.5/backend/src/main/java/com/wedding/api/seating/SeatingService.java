@@ -0,0 +1,269 @@
+package com.wedding.api.seating;
+
+import com.wedding.api.model.Guest;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.repository.GuestRepository;
+import com.wedding.api.repository.RSVPRepository;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Runs seating jobs: the guest list is loaded on the request thread (so bad input fails fast),
+// then each job fans out into independent annealing restarts on a private pool sized to the
+// cores. The job completes when every restart has finished, been cancelled or hit the time limit,
+// and keeps the lowest-cost assignment. Finished jobs are kept in memory for polling.
+// The solver pool is shared by all weddings, but a job is only visible to the wedding that started it.
+@Service
+public class SeatingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatingService.class);
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Autowired
+    private RSVPRepository rsvpRepository;
+
+    @Value("${wedding.seating.default-time-limit-ms:5000}")
+    private long defaultTimeLimitMs;
+
+    @Value("${wedding.seating.max-time-limit-ms:60000}")
+    private long maxTimeLimitMs;
+
+    @Value("${wedding.seating.default-iterations-per-restart:20000000}")
+    private long defaultIterationsPerRestart;
+
+    @Value("${wedding.seating.retained-jobs:20}")
+    private int retainedJobs;
+
+    @Value("${wedding.seating.max-tables:500}")
+    private int maxTables;
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService solverPool;
+    private final int parallelism;
+    private final int maxRunningJobs;
+    // One permit per running job, released when the job finishes
+    private final Semaphore runningJobs;
+
+    private final Map<String, SeatingJob> jobs = new ConcurrentHashMap<>();
+
+    public SeatingService(MeterRegistry meterRegistry,
+                          @Value("${wedding.seating.parallelism:0}") int configuredParallelism,
+                          @Value("${wedding.seating.max-running-jobs:2}") int maxRunningJobs) {
+        this.meterRegistry = meterRegistry;
+        this.maxRunningJobs = maxRunningJobs;
+        this.runningJobs = new Semaphore(maxRunningJobs);
+        this.parallelism = configuredParallelism > 0 ? configuredParallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.solverPool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "seating-solver-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("wedding.seating.jobs.running", jobs,
+                        map -> map.values().stream().filter(job -> !job.isFinished()).count())
+                .description("Seating jobs currently solving")
+                .register(meterRegistry);
+    }
+
+    public SeatingJob startJob(SeatingRequest request) {
+        if (!runningJobs.tryAcquire()) {
+            throw new RuntimeException("Too many seating jobs running (" + maxRunningJobs + "), retry when one finishes");
+        }
+        try {
+            return submit(request);
+        } catch (RuntimeException e) {
+            runningJobs.release();
+            throw e;
+        }
+    }
+
+    // Called holding a running-job permit; run() hands it to the job
+    private SeatingJob submit(SeatingRequest request) {
+        SeatingProblem problem = buildProblem(request);
+        if (problem.getPartyCount() == 0) {
+            throw new RuntimeException("No guests to seat");
+        }
+
+        int restarts = request.getRestarts() != null ? request.getRestarts() : parallelism;
+        if (restarts < 1 || restarts > parallelism * 8) {
+            throw new RuntimeException("restarts must be between 1 and " + parallelism * 8);
+        }
+        long timeLimitMs = request.getTimeLimitMs() != null ? request.getTimeLimitMs() : defaultTimeLimitMs;
+        if (timeLimitMs < 1 || timeLimitMs > maxTimeLimitMs) {
+            throw new RuntimeException("timeLimitMs must be between 1 and " + maxTimeLimitMs);
+        }
+        long iterations = request.getIterationsPerRestart() != null ? request.getIterationsPerRestart() : defaultIterationsPerRestart;
+        if (iterations < 1) {
+            throw new RuntimeException("iterationsPerRestart must be positive");
+        }
+
+        SeatingJob job = new SeatingJob(UUID.randomUUID().toString(), TenantContext.current(), problem, restarts, iterations, timeLimitMs);
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        run(job);
+
+        logger.info("Seating job {} started for wedding {}: {} parties ({} seats) at {} tables, {} restarts, {} ms limit",
+                job.getId(), job.getWeddingId(), problem.getPartyCount(), problem.getSeatCount(), problem.tableCount, restarts, timeLimitMs);
+        return job;
+    }
+
+    public SeatingJob getJob(String jobId) {
+        SeatingJob job = jobs.get(jobId);
+        if (job == null || !job.getWeddingId().equals(TenantContext.current())) {
+            throw new RuntimeException("Seating job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    // Stops the restarts at their next check; the job then finishes as CANCELLED with the best seating so far
+    public SeatingJob cancelJob(String jobId) {
+        SeatingJob job = getJob(jobId);
+        job.cancel();
+        return job;
+    }
+
+    private void run(SeatingJob job) {
+        long baseSeed = System.nanoTime();
+        List<CompletableFuture<int[]>> restarts = new ArrayList<>();
+        List<SeatingSolver> solvers = new ArrayList<>();
+        for (int i = 0; i < job.getRestarts(); i++) {
+            SeatingSolver solver = new SeatingSolver(job.getProblem(), baseSeed + i * 0x9E3779B97F4A7C15L);
+            solvers.add(solver);
+            restarts.add(CompletableFuture.supplyAsync(() -> solver.solve(job.getIterationsPerRestart(),
+                    job.getDeadlineNanos(), job.cancelled, job.iterationsDone, job.bestCost), solverPool));
+        }
+
+        CompletableFuture.allOf(restarts.toArray(new CompletableFuture[0])).whenComplete((ignored, failure) -> {
+            runningJobs.release();
+            if (failure != null) {
+                logger.error("Seating job {} failed", job.getId(), failure);
+                job.finish(SeatingJob.Status.FAILED, null, failure.getMessage());
+            } else {
+                int best = 0;
+                for (int i = 1; i < solvers.size(); i++) {
+                    if (solvers.get(i).getBestCost() < solvers.get(best).getBestCost()) {
+                        best = i;
+                    }
+                }
+                SeatingJob.Status status = job.cancelled.get() ? SeatingJob.Status.CANCELLED : SeatingJob.Status.COMPLETED;
+                job.finish(status, restarts.get(best).join(), null);
+            }
+            meterRegistry.counter("wedding.seating.jobs", "status", job.getStatus().name()).increment();
+            meterRegistry.timer("wedding.seating.solve.time", "status", job.getStatus().name())
+                    .record(job.getDurationMs(), TimeUnit.MILLISECONDS);
+            logger.info("Seating job {} {} in {} ms, best cost {}", job.getId(), job.getStatus(),
+                    job.getDurationMs(), job.bestCost.get());
+        });
+    }
+
+    private SeatingProblem buildProblem(SeatingRequest request) {
+        // Every restart keeps a groups x tables count matrix and scans tables per move, so cap the
+        // table count before loading anything
+        int requestedTables = request.getTables() != null && !request.getTables().isEmpty()
+                ? request.getTables().size()
+                : request.getTableCount() != null ? request.getTableCount() : 0;
+        if (requestedTables > maxTables) {
+            throw new RuntimeException("At most " + maxTables + " tables can be seated");
+        }
+
+        SeatingProblem.Builder builder = new SeatingProblem.Builder();
+
+        Map<Long, RSVP> rsvpByGuest = new HashMap<>();
+        for (RSVP rsvp : rsvpRepository.findAll()) {
+            rsvpByGuest.put(rsvp.getGuestId(), rsvp);
+        }
+        List<Guest> guests = guestRepository.findAll();
+        guests.sort(Comparator.comparing(Guest::getId));
+        for (Guest guest : guests) {
+            RSVP rsvp = rsvpByGuest.get(guest.getId());
+            if (request.isExcludeDeclined() && rsvp != null && rsvp.getStatus() == RSVP.RSVPStatus.NOT_ATTENDING) {
+                continue;
+            }
+            // An RSVP's answer about the plus-one wins over the invitation
+            boolean plusOne = rsvp != null
+                    ? Boolean.TRUE.equals(rsvp.getPlusOneAttending())
+                    : Boolean.TRUE.equals(guest.getPlusOne());
+            builder.addParty(guest.getId(), guest.getFullName(), plusOne ? 2 : 1, guest.getDietaryRestrictions());
+        }
+
+        if (request.getTables() != null && !request.getTables().isEmpty()) {
+            for (SeatingRequest.TableSpec table : request.getTables()) {
+                if (table.getCapacity() < 1) {
+                    throw new RuntimeException("Table capacity must be positive");
+                }
+                String name = table.getName() != null ? table.getName() : "Table " + (builder.tableCount() + 1);
+                builder.addTable(name, table.getCapacity());
+            }
+        } else if (request.getTableCount() != null && request.getTableCapacity() != null) {
+            if (request.getTableCount() < 1 || request.getTableCapacity() < 1) {
+                throw new RuntimeException("tableCount and tableCapacity must be positive");
+            }
+            for (int i = 1; i <= request.getTableCount(); i++) {
+                builder.addTable("Table " + i, request.getTableCapacity());
+            }
+        } else {
+            throw new RuntimeException("Either tables or tableCount and tableCapacity are required");
+        }
+
+        for (SeatingRequest.ConstraintSpec constraint : request.getConstraints()) {
+            if (constraint.getType() == null || constraint.getGuestIds() == null) {
+                throw new RuntimeException("Each constraint needs a type and guestIds");
+            }
+            Set<Long> unknown = constraint.getGuestIds().stream()
+                    .filter(id -> !builder.hasGuest(id))
+                    .collect(Collectors.toSet());
+            if (!unknown.isEmpty()) {
+                logger.debug("Seating constraint ignores guests not being seated: {}", unknown);
+            }
+            int weight = constraint.getWeight() != null ? constraint.getWeight() : SeatingProblem.DEFAULT_CONSTRAINT_WEIGHT;
+            if (weight < 1) {
+                throw new RuntimeException("Constraint weight must be positive");
+            }
+            builder.addConstraint(constraint.getType() == SeatingRequest.ConstraintType.APART,
+                    constraint.getGuestIds(), weight);
+        }
+
+        return builder.build(request.isGroupDietaryRestrictions());
+    }
+
+    private void evictFinishedJobs() {
+        List<SeatingJob> finished = jobs.values().stream()
+                .filter(SeatingJob::isFinished)
+                .sorted(Comparator.comparing(SeatingJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedJobs + 1; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(SeatingJob::cancel);
+        solverPool.shutdownNow();
+    }
+}
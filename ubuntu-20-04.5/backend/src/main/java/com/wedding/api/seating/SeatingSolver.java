@@ -0,0 +1,210 @@
+package com.wedding.api.seating;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One simulated-annealing run over a SeatingProblem. Not thread-safe; the service runs one
+// instance per restart on its own thread, each with a different seed, and keeps the best.
+//
+// Moves are "relocate one party" and "swap two parties at different tables"; both are scored
+// incrementally from per-table loads and per-group table counts, so an iteration costs
+// O(groups the touched parties belong to) rather than a full re-evaluation.
+public class SeatingSolver {
+
+    // How often (in iterations) the clock, cancellation flag and shared progress are checked
+    private static final int CHECK_INTERVAL = 1024;
+    private static final double FINAL_TEMPERATURE = 0.05;
+
+    private final SeatingProblem problem;
+    private final SplittableRandom random;
+
+    private final int[] tableOf;
+    private final int[] load;
+    // groupTableCount[g][t] = members of group g seated at table t
+    private final int[][] groupTableCount;
+    private long cost;
+
+    private int[] best;
+    private long bestCost;
+
+    public SeatingSolver(SeatingProblem problem, long seed) {
+        this.problem = problem;
+        this.random = new SplittableRandom(seed);
+        this.tableOf = new int[problem.partyCount];
+        this.load = new int[problem.tableCount];
+        this.groupTableCount = new int[problem.groupCount][problem.tableCount];
+    }
+
+    // Runs until maxIterations, the deadline or cancellation, whichever comes first.
+    // iterationsDone and sharedBestCost are shared with the other restarts of the same job.
+    public int[] solve(long maxIterations, long deadlineNanos, AtomicBoolean cancelled,
+                       AtomicLong iterationsDone, AtomicLong sharedBestCost) {
+        initialize();
+        best = tableOf.clone();
+        bestCost = cost;
+        publishBest(sharedBestCost);
+        if (problem.tableCount < 2 || problem.partyCount < 2) {
+            return best;
+        }
+
+        long startNanos = System.nanoTime();
+        long budgetNanos = Math.max(1, deadlineNanos - startNanos);
+        double startTemperature = estimateStartTemperature();
+        double temperature = startTemperature;
+
+        for (long iteration = 0; iteration < maxIterations; iteration++) {
+            if ((iteration & (CHECK_INTERVAL - 1)) == 0 && iteration > 0) {
+                iterationsDone.addAndGet(CHECK_INTERVAL);
+                long now = System.nanoTime();
+                if (cancelled.get() || now >= deadlineNanos) {
+                    break;
+                }
+                publishBest(sharedBestCost);
+                // Geometric cooling over whichever budget (iterations or time) runs out first
+                double progress = Math.max((double) iteration / maxIterations, (double) (now - startNanos) / budgetNanos);
+                temperature = startTemperature * Math.pow(FINAL_TEMPERATURE / startTemperature, progress);
+            }
+
+            int party = random.nextInt(problem.partyCount);
+            int from = tableOf[party];
+            if (random.nextInt(2) == 0) {
+                int to = random.nextInt(problem.tableCount - 1);
+                if (to >= from) {
+                    to++;
+                }
+                long delta = move(party, to);
+                if (!accept(delta, temperature)) {
+                    move(party, from);
+                }
+            } else {
+                int other = random.nextInt(problem.partyCount);
+                int to = tableOf[other];
+                if (to == from) {
+                    continue;
+                }
+                long delta = move(party, to) + move(other, from);
+                if (!accept(delta, temperature)) {
+                    move(other, to);
+                    move(party, from);
+                }
+            }
+
+            if (cost < bestCost) {
+                bestCost = cost;
+                System.arraycopy(tableOf, 0, best, 0, tableOf.length);
+            }
+        }
+        publishBest(sharedBestCost);
+        return best;
+    }
+
+    public long getBestCost() {
+        return bestCost;
+    }
+
+    // Randomised greedy start: parties in random order, largest first, each to the table with
+    // the most free seats. Different seeds give each restart a different starting basin.
+    private void initialize() {
+        Integer[] order = new Integer[problem.partyCount];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        java.util.Arrays.sort(order, (a, b) -> Integer.compare(problem.partySize[b], problem.partySize[a]));
+
+        int offset = random.nextInt(Math.max(1, problem.tableCount));
+        for (int party : order) {
+            int target = 0;
+            int mostFree = Integer.MIN_VALUE;
+            for (int k = 0; k < problem.tableCount; k++) {
+                int t = (k + offset) % problem.tableCount;
+                int free = problem.capacity[t] - load[t];
+                if (free > mostFree) {
+                    mostFree = free;
+                    target = t;
+                }
+            }
+            tableOf[party] = target;
+            load[target] += problem.partySize[party];
+            for (int g : problem.partyGroups[party]) {
+                groupTableCount[g][target]++;
+            }
+        }
+        cost = problem.cost(tableOf);
+    }
+
+    // Average uphill delta of random relocations, so roughly half of them are accepted at the start
+    private double estimateStartTemperature() {
+        long total = 0;
+        int uphill = 0;
+        for (int i = 0; i < 200; i++) {
+            int party = random.nextInt(problem.partyCount);
+            int from = tableOf[party];
+            int to = random.nextInt(problem.tableCount - 1);
+            if (to >= from) {
+                to++;
+            }
+            long delta = move(party, to);
+            move(party, from);
+            if (delta > 0) {
+                total += delta;
+                uphill++;
+            }
+        }
+        double average = uphill == 0 ? 1.0 : (double) total / uphill;
+        return Math.max(average / Math.log(2), FINAL_TEMPERATURE * 2);
+    }
+
+    private boolean accept(long delta, double temperature) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    // Moves a party and returns the change in cost
+    private long move(int party, int to) {
+        int from = tableOf[party];
+        if (from == to) {
+            return 0;
+        }
+        int size = problem.partySize[party];
+        long delta = (long) SeatingProblem.CAPACITY_WEIGHT
+                * (overflow(from, load[from] - size) - overflow(from, load[from])
+                + overflow(to, load[to] + size) - overflow(to, load[to]));
+
+        for (int g : problem.partyGroups[party]) {
+            int[] counts = groupTableCount[g];
+            int weight = problem.groupWeight[g];
+            if (problem.groupApart[g]) {
+                delta += (long) (counts[to] - (counts[from] - 1)) * weight;
+            } else {
+                if (counts[from] == 1) {
+                    delta -= weight;
+                }
+                if (counts[to] == 0) {
+                    delta += weight;
+                }
+            }
+            counts[from]--;
+            counts[to]++;
+        }
+
+        load[from] -= size;
+        load[to] += size;
+        tableOf[party] = to;
+        cost += delta;
+        return delta;
+    }
+
+    private int overflow(int table, int seats) {
+        return Math.max(0, seats - problem.capacity[table]);
+    }
+
+    private void publishBest(AtomicLong sharedBestCost) {
+        sharedBestCost.accumulateAndGet(bestCost, Math::min);
+    }
+}
@@ -0,0 +1,176 @@
+package com.wedding.api.service;
+
+import com.wedding.api.event.DataChangedEvent;
+import com.wedding.api.jfr.StatsComputationEvent;
+import com.wedding.api.model.DietaryTag;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Catering headcounts from a single grouped query over guests LEFT JOIN rsvps. Rows are grouped
+// by (status, plus-one flags, normalised diet text), so the result is a handful of rows however
+// many guests there are, and each distinct diet string is parsed into DietaryTags only once.
+// The report is per wedding (the cache is tenant-scoped) and cached until one of its Guests or RSVPs changes.
+@Service
+public class CateringReportService {
+
+    public static final String CACHE_NAME = "cateringReport";
+
+    // No RSVP yet counts as "pending"
+    private static final String REPORT_SQL =
+            "SELECT COALESCE(r.status, 'pending') AS status, " +
+            "       COALESCE(g.plus_one, false) AS plus_one_invited, " +
+            "       COALESCE(r.plus_one_attending, false) AS plus_one_attending, " +
+            "       LOWER(TRIM(g.dietary_restrictions)) AS diet, " +
+            "       COUNT(*) AS guests " +
+            "FROM guests g LEFT JOIN rsvps r ON r.guest_id = g.id " +
+            "WHERE g.wedding_id = ? " +
+            "GROUP BY 1, 2, 3, 4";
+
+    private static final int MAX_OTHER_EXAMPLES = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Timed(value = "wedding.service.catering.report", description = "Time to build the catering headcount report")
+    @Cacheable(value = CACHE_NAME, key = "'report'")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCateringReport() {
+        // Only cache misses get here
+        StatsComputationEvent jfrEvent = new StatsComputationEvent("catering");
+        jfrEvent.begin();
+        try {
+            Map<String, Object> report = computeReport();
+            jfrEvent.setSuccess(true);
+            meterRegistry.counter("wedding.catering.report.computed.total").increment();
+            return report;
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(value = CACHE_NAME, allEntries = true, condition = "#event.isAbout(T(com.wedding.api.model.Guest)) or #event.isAbout(T(com.wedding.api.model.RSVP))")
+    public void onDataChanged(DataChangedEvent event) {
+        // Eviction is declared on the annotation; the next report request recomputes
+    }
+
+    private Map<String, Object> computeReport() {
+        Map<String, Long> guestsByStatus = new LinkedHashMap<>();
+        for (RSVP.RSVPStatus status : RSVP.RSVPStatus.values()) {
+            guestsByStatus.put(status.getValue(), 0L);
+        }
+        guestsByStatus.put("pending", 0L);
+
+        Map<String, EnumSet<DietaryTag>> parsedDiets = new HashMap<>();
+        Map<DietaryTag, Long> attendingByTag = new EnumMap<>(DietaryTag.class);
+        Map<DietaryTag, Long> potentialByTag = new EnumMap<>(DietaryTag.class);
+        TreeSet<String> otherRestrictions = new TreeSet<>();
+        Totals totals = new Totals();
+
+        jdbcTemplate.query(REPORT_SQL, rs -> {
+            String status = rs.getString("status");
+            boolean plusOneInvited = rs.getBoolean("plus_one_invited");
+            boolean plusOneAttending = rs.getBoolean("plus_one_attending");
+            String diet = rs.getString("diet");
+            long guests = rs.getLong("guests");
+
+            guestsByStatus.merge(status, guests, Long::sum);
+            totals.totalGuests += guests;
+
+            boolean attending = RSVP.RSVPStatus.ATTENDING.getValue().equals(status);
+            boolean maybe = RSVP.RSVPStatus.MAYBE.getValue().equals(status);
+            boolean pending = "pending".equals(status);
+            if (attending && plusOneAttending) {
+                totals.attendingPlusOnes += guests;
+            } else if (maybe && plusOneAttending) {
+                totals.maybePlusOnes += guests;
+            } else if (pending && plusOneInvited) {
+                totals.pendingPlusOnes += guests;
+            }
+
+            if (!attending && !maybe && !pending) {
+                return;
+            }
+            EnumSet<DietaryTag> tags = parsedDiets.computeIfAbsent(diet == null ? "" : diet, DietaryTag::parse);
+            if (tags.contains(DietaryTag.OTHER) && otherRestrictions.size() < MAX_OTHER_EXAMPLES) {
+                otherRestrictions.add(diet);
+            }
+            for (DietaryTag tag : tags) {
+                potentialByTag.merge(tag, guests, Long::sum);
+                if (attending) {
+                    attendingByTag.merge(tag, guests, Long::sum);
+                }
+            }
+            if (attending && !tags.isEmpty()) {
+                totals.attendingWithRestrictions += guests;
+            }
+        }, TenantContext.current());
+
+        long attendingGuests = guestsByStatus.getOrDefault(RSVP.RSVPStatus.ATTENDING.getValue(), 0L);
+        long maybeGuests = guestsByStatus.getOrDefault(RSVP.RSVPStatus.MAYBE.getValue(), 0L);
+        long pendingGuests = guestsByStatus.getOrDefault("pending", 0L);
+        long confirmedHeadcount = attendingGuests + totals.attendingPlusOnes;
+
+        Map<String, Object> plusOnes = new LinkedHashMap<>();
+        plusOnes.put("attending", totals.attendingPlusOnes);
+        plusOnes.put("maybe", totals.maybePlusOnes);
+        plusOnes.put("pendingInvited", totals.pendingPlusOnes);
+
+        // Plus-ones have no dietary data of their own, so tag counts cover invited guests only
+        Map<String, Object> dietary = new LinkedHashMap<>();
+        dietary.put("attending", tagCounts(attendingByTag));
+        dietary.put("potential", tagCounts(potentialByTag));
+        dietary.put("attendingWithRestrictions", totals.attendingWithRestrictions);
+        dietary.put("attendingWithoutRestrictions", attendingGuests - totals.attendingWithRestrictions);
+        dietary.put("otherRestrictions", otherRestrictions);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalGuests", totals.totalGuests);
+        report.put("guestsByStatus", guestsByStatus);
+        report.put("plusOnes", plusOnes);
+        report.put("confirmedHeadcount", confirmedHeadcount);
+        // Upper bound if every maybe and every unanswered invitation turns up
+        report.put("maximumHeadcount", confirmedHeadcount + maybeGuests + totals.maybePlusOnes
+                + pendingGuests + totals.pendingPlusOnes);
+        report.put("dietary", dietary);
+        report.put("generatedAt", LocalDateTime.now());
+        return Collections.unmodifiableMap(report);
+    }
+
+    private static class Totals {
+        long totalGuests;
+        long attendingPlusOnes;
+        long maybePlusOnes;
+        long pendingPlusOnes;
+        long attendingWithRestrictions;
+    }
+
+    private static Map<String, Long> tagCounts(Map<DietaryTag, Long> counts) {
+        Map<String, Long> byTag = new LinkedHashMap<>();
+        for (DietaryTag tag : DietaryTag.values()) {
+            byTag.put(tag.name(), counts.getOrDefault(tag, 0L));
+        }
+        return byTag;
+    }
+}
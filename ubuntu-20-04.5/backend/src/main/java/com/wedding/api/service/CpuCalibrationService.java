@@ -0,0 +1,151 @@
+package com.wedding.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Multicore calibration for /api/performance/cpu-intensive. The iteration range is split into
+// one contiguous slice per worker on a dedicated fork-join pool (not the common pool, so
+// parallel streams elsewhere don't skew the numbers), and each slice is timed on its own.
+//
+// Scaling efficiency compares per-worker throughput in the parallel run with the throughput of
+// one slice run alone on the calling thread: 1.0 means adding cores added throughput linearly,
+// lower values show memory/frequency/SMT contention or a busy node.
+// Only one run at a time: overlapping runs would share the pool's workers and skew each other.
+@Service
+public class CpuCalibrationService {
+
+    private static final long WARMUP_ITERATIONS = 200_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wedding.performance.cpu-max-iterations:2000000000}")
+    private long maxIterations;
+
+    private final ForkJoinPool pool;
+    private final Semaphore running = new Semaphore(1);
+
+    public CpuCalibrationService(@Value("${wedding.performance.cpu-max-parallelism:0}") int maxParallelism) {
+        int size = maxParallelism > 0 ? maxParallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(size, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("cpu-calibration-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public int getMaxParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Returns null when another run is still in progress
+    public Map<String, Object> run(long iterations, int parallelism, boolean measureBaseline) {
+        if (iterations < 1 || iterations > maxIterations) {
+            throw new RuntimeException("iterations must be between 1 and " + maxIterations);
+        }
+        if (parallelism < 1 || parallelism > pool.getParallelism()) {
+            throw new RuntimeException("parallelism must be between 1 and " + pool.getParallelism());
+        }
+        // Every worker needs a non-empty slice, and the baseline times one of them
+        if (iterations < parallelism) {
+            throw new RuntimeException("iterations must be at least parallelism (" + parallelism + ")");
+        }
+        if (!running.tryAcquire()) {
+            meterRegistry.counter("wedding.performance.cpu.rejected").increment();
+            return null;
+        }
+        try {
+            return calibrate(iterations, parallelism, measureBaseline);
+        } finally {
+            running.release();
+        }
+    }
+
+    private Map<String, Object> calibrate(long iterations, int parallelism, boolean measureBaseline) {
+        // Let the JIT compile the kernel before anything is timed
+        compute(0, Math.min(WARMUP_ITERATIONS, iterations));
+
+        List<ForkJoinTask<long[]>> slices = new ArrayList<>(parallelism);
+        long sliceSize = iterations / parallelism;
+        long start = System.nanoTime();
+        for (int i = 0; i < parallelism; i++) {
+            long from = i * sliceSize;
+            long to = i == parallelism - 1 ? iterations : from + sliceSize;
+            slices.add(pool.submit(() -> {
+                long sliceStart = System.nanoTime();
+                double partial = compute(from, to);
+                return new long[]{Double.doubleToRawLongBits(partial), System.nanoTime() - sliceStart};
+            }));
+        }
+
+        double result = 0;
+        long slowestSliceNanos = 0;
+        long fastestSliceNanos = Long.MAX_VALUE;
+        for (ForkJoinTask<long[]> slice : slices) {
+            long[] outcome = slice.join();
+            result += Double.longBitsToDouble(outcome[0]);
+            slowestSliceNanos = Math.max(slowestSliceNanos, outcome[1]);
+            fastestSliceNanos = Math.min(fastestSliceNanos, outcome[1]);
+        }
+        long parallelNanos = System.nanoTime() - start;
+
+        double totalThroughput = iterations / (parallelNanos / 1e9);
+        double perWorkerThroughput = totalThroughput / parallelism;
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("iterations", iterations);
+        response.put("parallelism", parallelism);
+        response.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        response.put("result", result);
+        response.put("durationMs", TimeUnit.NANOSECONDS.toMillis(parallelNanos));
+        response.put("throughputPerSecond", Math.round(totalThroughput));
+        response.put("perCoreThroughputPerSecond", Math.round(perWorkerThroughput));
+        response.put("fastestSliceMs", TimeUnit.NANOSECONDS.toMillis(fastestSliceNanos));
+        response.put("slowestSliceMs", TimeUnit.NANOSECONDS.toMillis(slowestSliceNanos));
+
+        if (measureBaseline) {
+            long baselineStart = System.nanoTime();
+            compute(0, sliceSize);
+            long baselineNanos = System.nanoTime() - baselineStart;
+            double singleCoreThroughput = sliceSize / (baselineNanos / 1e9);
+            double efficiency = perWorkerThroughput / singleCoreThroughput;
+
+            response.put("singleCoreThroughputPerSecond", Math.round(singleCoreThroughput));
+            response.put("speedup", Math.round(efficiency * parallelism * 100) / 100.0);
+            response.put("scalingEfficiency", Math.round(efficiency * 1000) / 1000.0);
+            meterRegistry.summary("wedding.performance.cpu.scaling.efficiency", "parallelism", String.valueOf(parallelism))
+                    .record(efficiency);
+        }
+
+        meterRegistry.summary("wedding.performance.cpu.throughput.per.core", "parallelism", String.valueOf(parallelism))
+                .record(perWorkerThroughput);
+        return response;
+    }
+
+    // Same kernel the endpoint has always used, so results stay comparable with older runs
+    private static double compute(long from, long to) {
+        double result = 0;
+        for (long i = from; i < to; i++) {
+            result += Math.sqrt(i) * Math.sin(i) * Math.cos(i);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,201 @@
+package com.wedding.api.service;
+
+import com.wedding.api.event.DataChangedEvent;
+import com.wedding.api.event.WeddingIdleEvent;
+import com.wedding.api.model.WeddingEvent;
+import com.wedding.api.repository.WeddingEventRepository;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Copy-on-write, date-sorted view of wedding_events, one snapshot per wedding. The table is tiny
+// and read constantly, so schedule queries are answered with binary searches over an immutable
+// snapshot. Any committed event write swaps in a freshly loaded snapshot for that wedding; a
+// periodic reload picks up writes made through other replicas. Idle weddings' snapshots are
+// dropped rather than reloaded.
+// Loads run without any shared lock, so a slow wedding never holds up reads of another: the
+// first readers of a wedding share one load, and every load is numbered so a slower one that
+// started earlier can't replace a newer snapshot.
+@Service
+public class EventScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventScheduleIndex.class);
+
+    @Autowired
+    private WeddingEventRepository eventRepository;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Snapshot>> firstLoads = new ConcurrentHashMap<>();
+    private final AtomicLong loadSequence = new AtomicLong();
+
+    public EventScheduleIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("wedding.schedule.index.size", snapshots,
+                        map -> map.values().stream().mapToInt(snapshot -> snapshot.events.size()).sum())
+                .description("Number of events held in the in-memory schedule index, all weddings")
+                .register(meterRegistry);
+        Gauge.builder("wedding.schedule.index.weddings", snapshots, Map::size)
+                .description("Number of weddings with a loaded schedule snapshot")
+                .register(meterRegistry);
+    }
+
+    public List<WeddingEvent> getAll() {
+        return current().events;
+    }
+
+    // Events strictly after the given time, soonest first
+    public List<WeddingEvent> getAfter(LocalDateTime time) {
+        Snapshot current = current();
+        return current.events.subList(current.upperBound(time), current.events.size());
+    }
+
+    // Events with start <= eventDate <= end, soonest first
+    public List<WeddingEvent> getBetween(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            return Collections.emptyList();
+        }
+        Snapshot current = current();
+        return current.events.subList(current.lowerBound(start), current.upperBound(end));
+    }
+
+    public Optional<WeddingEvent> getNextAfter(LocalDateTime time) {
+        Snapshot current = current();
+        int index = current.upperBound(time);
+        return index < current.events.size() ? Optional.of(current.events.get(index)) : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.isAbout(WeddingEvent.class)) {
+            rebuild(event.getWeddingId());
+        }
+    }
+
+    @EventListener
+    public void onWeddingIdle(WeddingIdleEvent event) {
+        snapshots.remove(event.getWeddingId());
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.schedule-index.refresh-ms:300000}",
+               initialDelayString = "${wedding.schedule-index.refresh-ms:300000}")
+    public void periodicRebuild() {
+        for (String weddingId : snapshots.keySet()) {
+            try {
+                Snapshot loaded = load(weddingId);
+                // Unless the wedding went idle meanwhile
+                snapshots.computeIfPresent(weddingId, (ignored, current) -> newer(current, loaded));
+            } catch (Exception e) {
+                // Keep answering from the previous snapshot
+                logger.warn("Failed to reload event schedule index for wedding {}: {}", weddingId, e.getMessage());
+            }
+        }
+    }
+
+    public void rebuild(String weddingId) {
+        install(weddingId, load(weddingId));
+    }
+
+    private Snapshot current() {
+        String weddingId = TenantContext.current();
+        Snapshot current = snapshots.get(weddingId);
+        return current != null ? current : loadFirst(weddingId);
+    }
+
+    private Snapshot loadFirst(String weddingId) {
+        CompletableFuture<Snapshot> pending = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = firstLoads.putIfAbsent(weddingId, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            Snapshot snapshot = install(weddingId, load(weddingId));
+            pending.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            firstLoads.remove(weddingId, pending);
+        }
+    }
+
+    private Snapshot load(String weddingId) {
+        long sequence = loadSequence.incrementAndGet();
+        return new Snapshot(sequence, TenantContext.callAs(weddingId, eventRepository::findAllOrderedByDate));
+    }
+
+    private Snapshot install(String weddingId, Snapshot loaded) {
+        return snapshots.merge(weddingId, loaded, EventScheduleIndex::newer);
+    }
+
+    private static Snapshot newer(Snapshot current, Snapshot candidate) {
+        return candidate.sequence > current.sequence ? candidate : current;
+    }
+
+    private static class Snapshot {
+        private final long sequence;
+        private final List<WeddingEvent> events;
+        private final LocalDateTime[] dates;
+
+        Snapshot(long sequence, List<WeddingEvent> orderedEvents) {
+            this.sequence = sequence;
+            this.events = Collections.unmodifiableList(new ArrayList<>(orderedEvents));
+            this.dates = new LocalDateTime[events.size()];
+            for (int i = 0; i < dates.length; i++) {
+                dates[i] = events.get(i).getEventDate();
+            }
+        }
+
+        // First index whose date is >= time
+        int lowerBound(LocalDateTime time) {
+            int low = 0, high = dates.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid].isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First index whose date is > time
+        int upperBound(LocalDateTime time) {
+            int low = 0, high = dates.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dates[mid].isAfter(time)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
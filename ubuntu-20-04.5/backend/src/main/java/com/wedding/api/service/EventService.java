@@ -1,18 +1,30 @@
 package com.wedding.api.service;
 
+import com.wedding.api.cache.RefreshAheadCache;
+import com.wedding.api.event.DataChangedEvent;
+import com.wedding.api.event.WeddingIdleEvent;
+import com.wedding.api.jfr.StatsComputationEvent;
 import com.wedding.api.model.WeddingEvent;
 import com.wedding.api.repository.WeddingEventRepository;
+import com.wedding.api.tenant.TenantContext;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 @Service
 public class EventService {
@@ -29,9 +41,57 @@ public class EventService {
     @Autowired
     private RSVPService rsvpService;
     
+    @Autowired
+    private EventScheduleIndex scheduleIndex;
+    
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+    
+    @Autowired
+    private CpuCalibrationService cpuCalibrationService;
+    
+    @Value("${wedding.performance.cpu-intensive-iterations:1000000}")
+    private long cpuIntensiveIterations;
+    
+    @Value("${wedding.cache.event-details.ttl-ms:600000}")
+    private long eventDetailsTtlMs;
+    
+    @Value("${wedding.cache.event-details.refresh-ahead-ms:60000}")
+    private long eventDetailsRefreshAheadMs;
+    
+    // Keyed by wedding id. Refreshed in the background before it expires; a miss is loaded by one caller only
+    private RefreshAheadCache<String, WeddingEvent> eventDetailsCache;
+    
+    @PostConstruct
+    void initCaches() {
+        eventDetailsCache = new RefreshAheadCache<>("events",
+                Duration.ofMillis(eventDetailsTtlMs),
+                Duration.ofMillis(eventDetailsRefreshAheadMs),
+                taskExecutor,
+                meterRegistry);
+    }
+    
     @Timed(value = "wedding.service.events.details", description = "Time to get event details")
-    @Cacheable(value = "events", key = "'details'")
     public WeddingEvent getEventDetails() {
+        // Background refreshes run on the task executor, so the loader re-enters the wedding it loads for
+        return eventDetailsCache.get(TenantContext.current(),
+                weddingId -> TenantContext.callAs(weddingId, this::loadEventDetails));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        if (event.isAbout(WeddingEvent.class)) {
+            eventDetailsCache.evict(event.getWeddingId());
+        }
+    }
+    
+    @EventListener
+    public void onWeddingIdle(WeddingIdleEvent event) {
+        eventDetailsCache.evict(event.getWeddingId());
+    }
+    
+    private WeddingEvent loadEventDetails() {
         // Simulate database lookup delay
         simulateProcessingDelay(100, 300);
         
@@ -51,6 +111,18 @@ public class EventService {
     
     @Timed(value = "wedding.service.events.dashboard", description = "Time to get dashboard statistics")
     public Map<String, Object> getDashboardStats() {
+        StatsComputationEvent jfrEvent = new StatsComputationEvent("dashboard");
+        jfrEvent.begin();
+        try {
+            Map<String, Object> stats = computeDashboardStats();
+            jfrEvent.setSuccess(true);
+            return stats;
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    private Map<String, Object> computeDashboardStats() {
         // This method combines multiple service calls for comprehensive stats
         Map<String, Object> stats = new HashMap<>();
         
@@ -62,7 +134,7 @@ public class EventService {
         Map<String, Object> rsvpStats = rsvpService.calculateRSVPStats();
         
         // Get event count
-        long totalEvents = eventRepository.count();
+        long totalEvents = scheduleIndex.getAll().size();
         
         stats.put("totalGuests", totalGuests);
         stats.put("plusOneGuests", plusOneGuests);
@@ -77,27 +149,20 @@ public class EventService {
     }
     
     @Timed(value = "wedding.service.events.cpu.intensive", description = "CPU intensive task for performance testing")
-    public Map<String, Object> performCPUIntensiveTask() {
-        // CPU intensive calculation for APM testing
-        long iterations = 1_000_000;
-        long startTime = System.currentTimeMillis();
+    public Map<String, Object> performCPUIntensiveTask(Long iterations, Integer parallelism, boolean measureBaseline) {
+        // Multicore calibration run; defaults to the configured iterations spread over every core
+        long effectiveIterations = iterations != null ? iterations : cpuIntensiveIterations;
+        int effectiveParallelism = parallelism != null ? parallelism : cpuCalibrationService.getMaxParallelism();
         
-        double result = 0;
-        for (long i = 0; i < iterations; i++) {
-            result += Math.sqrt(i) * Math.sin(i) * Math.cos(i);
+        Map<String, Object> response = cpuCalibrationService.run(effectiveIterations, effectiveParallelism, measureBaseline);
+        if (response == null) {
+            return null;
         }
-        
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("iterations", iterations);
-        response.put("result", result);
-        response.put("durationMs", duration);
         response.put("timestamp", LocalDateTime.now());
         
         // Record performance metric
-        meterRegistry.timer("wedding.performance.cpu.duration").record(duration, java.util.concurrent.TimeUnit.MILLISECONDS);
+        meterRegistry.timer("wedding.performance.cpu.duration", "parallelism", String.valueOf(effectiveParallelism))
+                .record((Long) response.get("durationMs"), java.util.concurrent.TimeUnit.MILLISECONDS);
         
         return response;
     }
@@ -146,12 +211,30 @@ public class EventService {
         }
     }
     
+    // Schedule queries are served from the in-memory index instead of the database
     public List<WeddingEvent> getAllEvents() {
-        return eventRepository.findAllOrderedByDate();
+        return scheduleIndex.getAll();
     }
     
     public List<WeddingEvent> getUpcomingEvents() {
-        return eventRepository.findByEventDateAfter(LocalDateTime.now());
+        return scheduleIndex.getAfter(LocalDateTime.now());
+    }
+    
+    public List<WeddingEvent> getEventsBetween(LocalDateTime start, LocalDateTime end) {
+        return scheduleIndex.getBetween(start, end);
+    }
+    
+    // Longest look-ahead GET /api/events/within accepts (one year); also keeps plusHours from
+    // overflowing LocalDateTime
+    public static final long MAX_WITHIN_HOURS = 8760;
+
+    public List<WeddingEvent> getEventsWithinHours(long hours) {
+        LocalDateTime now = LocalDateTime.now();
+        return scheduleIndex.getBetween(now, now.plusHours(hours));
+    }
+    
+    public Optional<WeddingEvent> getNextEvent() {
+        return scheduleIndex.getNextAfter(LocalDateTime.now());
     }
     
     // Utility method to simulate processing time
@@ -1,5 +1,6 @@
 package com.wedding.api.service;
 
+import com.wedding.api.jfr.ExternalCallEvent;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +41,8 @@ public class ExternalApiService {
     public Map<String, Object> getWeatherForDate(String date) {
         // Simulate external weather API call
         long startTime = System.currentTimeMillis();
+        ExternalCallEvent jfrEvent = new ExternalCallEvent("weather");
+        jfrEvent.begin();
         
         try {
             // Simulate API processing time
@@ -68,13 +71,17 @@ public class ExternalApiService {
             meterRegistry.counter("wedding.external.weather.success.total").increment();
             meterRegistry.timer("wedding.external.weather.duration").record(duration, java.util.concurrent.TimeUnit.MILLISECONDS);
             
+            jfrEvent.setSuccess(true);
             return weatherData;
             
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
+            jfrEvent.setError(e.getMessage());
             meterRegistry.counter("wedding.external.weather.errors.total").increment();
             meterRegistry.timer("wedding.external.weather.duration").record(duration, java.util.concurrent.TimeUnit.MILLISECONDS);
             throw new RuntimeException("Failed to fetch weather data: " + e.getMessage(), e);
+        } finally {
+            jfrEvent.commit();
         }
     }
     
@@ -82,6 +89,8 @@ public class ExternalApiService {
     public Map<String, Object> getDirections(String from) {
         // Simulate external maps API call
         long startTime = System.currentTimeMillis();
+        ExternalCallEvent jfrEvent = new ExternalCallEvent("maps");
+        jfrEvent.begin();
         
         try {
             // Simulate API processing time
@@ -110,13 +119,17 @@ public class ExternalApiService {
             meterRegistry.counter("wedding.external.maps.success.total").increment();
             meterRegistry.timer("wedding.external.maps.duration").record(duration, java.util.concurrent.TimeUnit.MILLISECONDS);
             
+            jfrEvent.setSuccess(true);
             return directionsData;
             
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
+            jfrEvent.setError(e.getMessage());
             meterRegistry.counter("wedding.external.maps.errors.total").increment();
             meterRegistry.timer("wedding.external.maps.duration").record(duration, java.util.concurrent.TimeUnit.MILLISECONDS);
             throw new RuntimeException("Failed to fetch directions: " + e.getMessage(), e);
+        } finally {
+            jfrEvent.commit();
         }
     }
     
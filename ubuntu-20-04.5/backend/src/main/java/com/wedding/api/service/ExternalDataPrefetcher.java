@@ -0,0 +1,248 @@
+package com.wedding.api.service;
+
+import com.wedding.api.cache.RefreshAheadCache;
+import com.wedding.api.event.WeddingIdleEvent;
+import com.wedding.api.model.WeddingEvent;
+import com.wedding.api.repository.WeddingEventRepository;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps weather and directions warm so guests rarely wait on the slow external APIs.
+// Both are served from refresh-ahead caches. The weather API only takes a date, so forecasts are
+// shared by all weddings; directions lead to the wedding's own venue, so they are cached and
+// ranked per wedding and origin. On every pass the prefetcher loads weather for the dates of each
+// active wedding's upcoming events and directions from the origins each wedding's guests ask for
+// most, unless the cached value is still fresh. Origin counts are halved each pass so the ranking
+// follows recent demand and origins nobody asks for anymore drop out.
+@Service
+public class ExternalDataPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalDataPrefetcher.class);
+
+    @Autowired
+    private ExternalApiService externalApiService;
+
+    @Autowired
+    private WeddingEventRepository eventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${wedding.prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wedding.prefetch.weather.ttl-ms:1800000}")
+    private long weatherTtlMs;
+
+    @Value("${wedding.prefetch.weather.refresh-ahead-ms:600000}")
+    private long weatherRefreshAheadMs;
+
+    @Value("${wedding.prefetch.weather.horizon-days:16}")
+    private long weatherHorizonDays;
+
+    @Value("${wedding.prefetch.directions.ttl-ms:900000}")
+    private long directionsTtlMs;
+
+    @Value("${wedding.prefetch.directions.refresh-ahead-ms:420000}")
+    private long directionsRefreshAheadMs;
+
+    @Value("${wedding.prefetch.directions.top-origins:10}")
+    private int topOrigins;
+
+    @Value("${wedding.prefetch.directions.max-tracked-origins:1000}")
+    private int maxTrackedOrigins;
+
+    private RefreshAheadCache<String, Map<String, Object>> weatherCache;
+    private RefreshAheadCache<DirectionsKey, Map<String, Object>> directionsCache;
+
+    // Weddings whose guests have used weather or directions; their upcoming dates are prefetched
+    private final Set<String> activeWeddings = ConcurrentHashMap.newKeySet();
+    private final Map<DirectionsKey, AtomicLong> originCounts = new ConcurrentHashMap<>();
+    // Loads of the latest pass; a pass still warming when the next one is due is not overlapped
+    private volatile CompletableFuture<Void> lastPass = CompletableFuture.completedFuture(null);
+
+    @PostConstruct
+    void initCaches() {
+        weatherCache = new RefreshAheadCache<>("weather",
+                Duration.ofMillis(weatherTtlMs),
+                Duration.ofMillis(weatherRefreshAheadMs),
+                taskExecutor,
+                meterRegistry);
+        directionsCache = new RefreshAheadCache<>("directions",
+                Duration.ofMillis(directionsTtlMs),
+                Duration.ofMillis(directionsRefreshAheadMs),
+                taskExecutor,
+                meterRegistry);
+        activeWeddings.add(TenantContext.DEFAULT_WEDDING_ID);
+
+        Gauge.builder("wedding.prefetch.cache.size", weatherCache, RefreshAheadCache::size)
+                .tag("cache", "weather")
+                .description("Entries held in the prefetched external data caches")
+                .register(meterRegistry);
+        Gauge.builder("wedding.prefetch.cache.size", directionsCache, RefreshAheadCache::size)
+                .tag("cache", "directions")
+                .description("Entries held in the prefetched external data caches")
+                .register(meterRegistry);
+        Gauge.builder("wedding.prefetch.origins.tracked", originCounts, Map::size)
+                .description("Distinct direction origins currently ranked for prefetching")
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> getWeather(LocalDate date) {
+        activeWeddings.add(TenantContext.current());
+        // Same ISO form the prefetch pass uses
+        return weatherCache.get(date.toString(), externalApiService::getWeatherForDate);
+    }
+
+    public Map<String, Object> getDirections(String from) {
+        String weddingId = TenantContext.current();
+        activeWeddings.add(weddingId);
+        DirectionsKey key = new DirectionsKey(weddingId, from.trim().replaceAll("\\s+", " "));
+        countOrigin(key);
+        return directionsCache.get(key, this::loadDirections);
+    }
+
+    @EventListener
+    public void onWeddingIdle(WeddingIdleEvent event) {
+        String weddingId = event.getWeddingId();
+        if (!TenantContext.DEFAULT_WEDDING_ID.equals(weddingId)) {
+            activeWeddings.remove(weddingId);
+        }
+        originCounts.keySet().removeIf(key -> key.weddingId().equals(weddingId));
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.prefetch.interval-ms:300000}",
+               initialDelayString = "${wedding.prefetch.initial-delay-ms:30000}")
+    public void prefetch() {
+        if (!enabled) {
+            return;
+        }
+        if (!lastPass.isDone()) {
+            logger.debug("Previous prefetch pass still running, skipping this one");
+            return;
+        }
+        weatherCache.purgeExpired();
+        directionsCache.purgeExpired();
+
+        Set<String> dates = upcomingEventDates();
+        List<DirectionsKey> origins = rankOrigins();
+
+        // Each call takes 0.3-2 s, so warm in parallel on the task executor; the scheduler thread
+        // returns right away instead of waiting for the pass
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        for (String date : dates) {
+            loads.add(warmAsync("weather", date, weatherCache, externalApiService::getWeatherForDate));
+        }
+        for (DirectionsKey origin : origins) {
+            loads.add(warmAsync("directions", origin, directionsCache, this::loadDirections));
+        }
+        lastPass = CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).whenComplete((ignored, failure) ->
+                logger.debug("Prefetch pass covered {} weather dates and {} direction origins", dates.size(), origins.size()));
+    }
+
+    // Refreshes and prefetches run on pool threads, so the key carries the wedding
+    private Map<String, Object> loadDirections(DirectionsKey key) {
+        return TenantContext.callAs(key.weddingId(), () -> externalApiService.getDirections(key.origin()));
+    }
+
+    private void countOrigin(DirectionsKey origin) {
+        AtomicLong count = originCounts.get(origin);
+        if (count == null) {
+            // Past the cap new origins are ignored until decay frees room
+            if (originCounts.size() >= maxTrackedOrigins) {
+                return;
+            }
+            count = originCounts.computeIfAbsent(origin, ignored -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    // The most requested origins of each wedding
+    private List<DirectionsKey> rankOrigins() {
+        List<DirectionsKey> ranked = originCounts.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().weddingId()))
+                .values().stream()
+                .flatMap(entries -> entries.stream()
+                        .sorted(Comparator.comparingLong((Map.Entry<DirectionsKey, AtomicLong> entry) -> entry.getValue().get()).reversed())
+                        .limit(topOrigins))
+                .map(Map.Entry::getKey)
+                .toList();
+        originCounts.values().forEach(count -> count.updateAndGet(value -> value / 2));
+        originCounts.values().removeIf(count -> count.get() == 0);
+        return ranked;
+    }
+
+    private Set<String> upcomingEventDates() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusDays(weatherHorizonDays);
+        Set<String> dates = new TreeSet<>();
+        for (String weddingId : activeWeddings) {
+            try {
+                List<WeddingEvent> upcoming = TenantContext.callAs(weddingId, () -> eventRepository.findByEventDateAfter(now));
+                boolean any = false;
+                for (WeddingEvent event : upcoming) {
+                    if (!event.getEventDate().isAfter(horizon)) {
+                        // Same ISO form the /api/weather/{date} endpoint is called with
+                        dates.add(event.getEventDate().toLocalDate().toString());
+                    }
+                    any = true;
+                }
+                // A wedding that is over stops being prefetched until its guests ask again
+                if (!any && !TenantContext.DEFAULT_WEDDING_ID.equals(weddingId)) {
+                    activeWeddings.remove(weddingId);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to load upcoming events of wedding {} for prefetch: {}", weddingId, e.getMessage());
+            }
+        }
+        return dates;
+    }
+
+    private <K> CompletableFuture<Void> warmAsync(String kind, K key, RefreshAheadCache<K, Map<String, Object>> cache,
+                                                  Function<K, Map<String, Object>> loader) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                if (cache.warm(key, loader)) {
+                    meterRegistry.counter("wedding.prefetch.loads", "kind", kind, "result", "success").increment();
+                }
+            } catch (RuntimeException e) {
+                // The next pass or a guest request tries again
+                meterRegistry.counter("wedding.prefetch.loads", "kind", kind, "result", "failure").increment();
+                logger.debug("Prefetch of {} for {} failed: {}", kind, key, e.getMessage());
+            }
+        }, taskExecutor);
+    }
+
+    private record DirectionsKey(String weddingId, String origin) {
+    }
+}
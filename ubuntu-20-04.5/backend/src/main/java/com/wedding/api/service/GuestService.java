@@ -1,102 +1,252 @@
 package com.wedding.api.service;
 
+import com.wedding.api.cache.CacheBatchLookup;
+import com.wedding.api.jfr.GuestOperationEvent;
 import com.wedding.api.model.Guest;
+import com.wedding.api.model.GuestRsvpView;
 import com.wedding.api.repository.GuestRepository;
+import com.wedding.api.tenant.TenantContext;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class GuestService {
     
+    // Upper bound for one page of the joined guest+RSVP listing
+    public static final int MAX_GUEST_RSVP_PAGE_SIZE = 500;
+    
+    // Upper bound for ids in one multi-get, guests and RSVPs alike (RSVPService uses it too)
+    public static final int MAX_BATCH_SIZE = 500;
+    
     @Autowired
     private GuestRepository guestRepository;
     
     @Autowired
     private MeterRegistry meterRegistry;
     
+    @Autowired
+    private CacheManager cacheManager;
+    
     @Timed(value = "wedding.service.guests.get", description = "Time to get paginated guests")
+    @Transactional(readOnly = true)
     public Page<Guest> getGuests(Pageable pageable, String search) {
-        if (search != null && !search.trim().isEmpty()) {
-            return guestRepository.findBySearchTerm(search.trim(), pageable);
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("list", null);
+        jfrEvent.begin();
+        try {
+            Page<Guest> guests = search != null && !search.trim().isEmpty()
+                    ? guestRepository.findBySearchTerm(search.trim(), pageable)
+                    : guestRepository.findAll(pageable);
+            jfrEvent.setSuccess(true);
+            return guests;
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    // Same listing with only the requested columns selected, e.g. fields=firstName,lastName,email
+    @Timed(value = "wedding.service.guests.get.projected", description = "Time to get paginated guests with selected fields")
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getGuests(Pageable pageable, String search, List<String> fields) {
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("list", null);
+        jfrEvent.begin();
+        try {
+            Page<Map<String, Object>> guests = guestRepository.findProjected(fields, search, pageable);
+            jfrEvent.setSuccess(true);
+            return guests;
+        } finally {
+            jfrEvent.commit();
         }
-        return guestRepository.findAll(pageable);
+    }
+    
+    @Timed(value = "wedding.service.guests.with.rsvp", description = "Time to list guests joined with their RSVP")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getGuestsWithRsvpAfter(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_GUEST_RSVP_PAGE_SIZE));
+        // One extra row tells us whether there is a next page without a COUNT query
+        List<GuestRsvpView> rows = guestRepository.findGuestsWithRsvpAfter(
+                afterId != null ? afterId : 0L, PageRequest.ofSize(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<GuestRsvpView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", items);
+        response.put("size", items.size());
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", hasMore ? items.get(items.size() - 1).getGuestId() : null);
+        return response;
+    }
+    
+    @Timed(value = "wedding.service.guests.with.rsvp.page", description = "Time to get a numbered page of guests with their RSVP")
+    @Transactional(readOnly = true)
+    public Page<GuestRsvpView> getGuestsWithRsvpPage(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_GUEST_RSVP_PAGE_SIZE));
+        return guestRepository.findGuestsWithRsvp(PageRequest.of(Math.max(0, page), pageSize));
     }
     
     @Timed(value = "wedding.service.guests.create", description = "Time to create guest")
     public Guest createGuest(Guest guest) {
-        // Simulate business logic processing time
-        simulateProcessingDelay(100, 300);
-        
-        // Check for duplicate email
-        Optional<Guest> existingGuest = guestRepository.findByEmail(guest.getEmail());
-        if (existingGuest.isPresent()) {
-            throw new RuntimeException("Guest with email " + guest.getEmail() + " already exists");
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("create", null);
+        jfrEvent.begin();
+        try {
+            // Simulate business logic processing time
+            simulateProcessingDelay(100, 300);
+            
+            // Check for duplicate email
+            Optional<Guest> existingGuest = guestRepository.findByEmail(guest.getEmail());
+            if (existingGuest.isPresent()) {
+                throw new RuntimeException("Guest with email " + guest.getEmail() + " already exists");
+            }
+            
+            Guest savedGuest = guestRepository.save(guest);
+            
+            // Record custom metric
+            meterRegistry.counter("wedding.guests.created.total").increment();
+            
+            jfrEvent.setGuestId(savedGuest.getId());
+            jfrEvent.setSuccess(true);
+            return savedGuest;
+        } finally {
+            jfrEvent.commit();
         }
-        
-        Guest savedGuest = guestRepository.save(guest);
-        
-        // Record custom metric
-        meterRegistry.counter("wedding.guests.created.total").increment();
-        
-        return savedGuest;
     }
     
     @Timed(value = "wedding.service.guests.get.single", description = "Time to get single guest")
     @Cacheable(value = "guests", key = "#id")
+    @Transactional(readOnly = true)
     public Guest getGuestById(Long id) {
-        return guestRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Guest not found with id: " + id));
+        // Only cache misses get here
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("read", id);
+        jfrEvent.begin();
+        try {
+            // Lookups by primary key bypass Hibernate's tenant filter, so the wedding is checked here
+            Guest guest = guestRepository.findById(id)
+                    .filter(found -> TenantContext.current().equals(found.getWeddingId()))
+                    .orElseThrow(() -> new RuntimeException("Guest not found with id: " + id));
+            jfrEvent.setSuccess(true);
+            return guest;
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    // Multi-get: cached guests are served from the "guests" cache, the rest come from one IN (...) query.
+    // Missing ids are reported back instead of failing the batch.
+    @Timed(value = "wedding.service.guests.get.batch", description = "Time to get guests by id list")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getGuestsByIds(List<Long> ids) {
+        LinkedHashSet<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " guest ids per batch");
+        }
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("batch-read", null);
+        jfrEvent.begin();
+        try {
+            Map<Long, Guest> guests = CacheBatchLookup.getAll(cacheManager.getCache("guests"), uniqueIds, Guest.class,
+                    misses -> guestRepository.findAllById(misses).stream()
+                            .collect(Collectors.toMap(Guest::getId, guest -> guest)),
+                    meterRegistry);
+            
+            List<Guest> found = new ArrayList<>();
+            List<Long> notFound = new ArrayList<>();
+            for (Long id : uniqueIds) {
+                Guest guest = guests.get(id);
+                if (guest != null) {
+                    found.add(guest);
+                } else {
+                    notFound.add(id);
+                }
+            }
+            
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("guests", found);
+            response.put("notFound", notFound);
+            jfrEvent.setSuccess(true);
+            return response;
+        } finally {
+            jfrEvent.commit();
+        }
     }
     
     @Timed(value = "wedding.service.guests.update", description = "Time to update guest")
+    @CacheEvict(value = "guests", key = "#id")
     public Guest updateGuest(Long id, Guest guestDetails) {
-        Guest guest = getGuestById(id);
-        
-        // Simulate complex business logic
-        simulateProcessingDelay(150, 400);
-        
-        guest.setFirstName(guestDetails.getFirstName());
-        guest.setLastName(guestDetails.getLastName());
-        guest.setEmail(guestDetails.getEmail());
-        guest.setPhone(guestDetails.getPhone());
-        guest.setAddress(guestDetails.getAddress());
-        guest.setPlusOne(guestDetails.getPlusOne());
-        guest.setDietaryRestrictions(guestDetails.getDietaryRestrictions());
-        
-        Guest updatedGuest = guestRepository.save(guest);
-        
-        // Record custom metric
-        meterRegistry.counter("wedding.guests.updated.total").increment();
-        
-        return updatedGuest;
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("update", id);
+        jfrEvent.begin();
+        try {
+            Guest guest = getGuestById(id);
+            
+            // Simulate complex business logic
+            simulateProcessingDelay(150, 400);
+            
+            guest.setFirstName(guestDetails.getFirstName());
+            guest.setLastName(guestDetails.getLastName());
+            guest.setEmail(guestDetails.getEmail());
+            guest.setPhone(guestDetails.getPhone());
+            guest.setAddress(guestDetails.getAddress());
+            guest.setPlusOne(guestDetails.getPlusOne());
+            guest.setDietaryRestrictions(guestDetails.getDietaryRestrictions());
+            
+            Guest updatedGuest = guestRepository.save(guest);
+            
+            // Record custom metric
+            meterRegistry.counter("wedding.guests.updated.total").increment();
+            
+            jfrEvent.setSuccess(true);
+            return updatedGuest;
+        } finally {
+            jfrEvent.commit();
+        }
     }
     
     @Timed(value = "wedding.service.guests.delete", description = "Time to delete guest")
+    @Caching(evict = {
+            @CacheEvict(value = "guests", key = "#id"),
+            // rsvps.guest_id is ON DELETE CASCADE
+            @CacheEvict(value = "rsvps", key = "#id")
+    })
     public void deleteGuest(Long id) {
-        Guest guest = getGuestById(id);
-        guestRepository.delete(guest);
-        
-        // Record custom metric
-        meterRegistry.counter("wedding.guests.deleted.total").increment();
+        GuestOperationEvent jfrEvent = new GuestOperationEvent("delete", id);
+        jfrEvent.begin();
+        try {
+            Guest guest = getGuestById(id);
+            guestRepository.delete(guest);
+            
+            // Record custom metric
+            meterRegistry.counter("wedding.guests.deleted.total").increment();
+            jfrEvent.setSuccess(true);
+        } finally {
+            jfrEvent.commit();
+        }
     }
     
     @Timed(value = "wedding.service.guests.slow.query", description = "Intentionally slow query for APM testing")
+    @Transactional(readOnly = true)
     public List<Guest> performSlowQuery() {
         // This will generate a slow database trace
         return guestRepository.findGuestsWithSlowQuery();
     }
     
     @Timed(value = "wedding.service.guests.random", description = "Time to get random guests")
+    @Transactional(readOnly = true)
     public List<Guest> getRandomGuests() {
         return guestRepository.findRandomGuests();
     }
@@ -117,10 +267,12 @@ public class GuestService {
     }
     
     // Business metrics
+    @Transactional(readOnly = true)
     public long getTotalGuestsCount() {
         return guestRepository.count();
     }
     
+    @Transactional(readOnly = true)
     public long getPlusOneGuestsCount() {
         return guestRepository.countByPlusOneTrue();
     }
@@ -1,5 +1,6 @@
 package com.wedding.api.service;
 
+import com.wedding.api.analytics.AnalyticsEventStore;
 import com.wedding.api.model.RSVP;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -16,6 +17,10 @@ public class MetricsService {
     @Autowired
     private MeterRegistry meterRegistry;
     
+    // Absent when wedding.analytics.store.enabled=false; events then only feed the counters
+    @Autowired(required = false)
+    private AnalyticsEventStore analyticsEventStore;
+    
     // Counters for tracking various events
     private final Counter guestListAccessCounter;
     private final Counter guestCreationCounter;
@@ -104,6 +109,10 @@ public class MetricsService {
     }
     
     public void recordPageView(String page, String userAgent) {
+        if (analyticsEventStore != null) {
+            analyticsEventStore.recordPageView(page, extractBrowser(userAgent));
+        }
+        
         // Record overall page view
         try {
             pageViewTimer.recordCallable(() -> {
@@ -124,6 +133,10 @@ public class MetricsService {
     }
     
     public void recordFunnelStep(String step, String guestId) {
+        if (analyticsEventStore != null) {
+            analyticsEventStore.recordFunnelStep(step, parseGuestId(guestId));
+        }
+        
         // Record with tags using simple counters
         meterRegistry.counter("wedding.funnel.step", 
                 "step", step,
@@ -144,9 +157,15 @@ public class MetricsService {
                 .record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
     }
     
-    public void recordDatabaseQueryTime(String queryType, long durationMs) {
-        meterRegistry.timer("wedding.database.query.time", "type", queryType)
-                .record(durationMs, java.util.concurrent.TimeUnit.MILLISECONDS);
+    // Fed for every statement by QueryMetricsListener; type is the repository method that issued it
+    public void recordDatabaseQueryTime(String queryType, String operation, long durationNanos) {
+        meterRegistry.timer("wedding.database.query.time", "type", queryType, "operation", operation)
+                .record(durationNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordConditionalGet(boolean notModified) {
+        meterRegistry.counter("wedding.http.conditional.get",
+                "result", notModified ? "not_modified" : "full_response").increment();
     }
     
     public void recordCacheHit(String cacheKey, boolean hit) {
@@ -180,6 +199,15 @@ public class MetricsService {
         return "other";
     }
     
+    private Long parseGuestId(String guestId) {
+        if (guestId == null) return null;
+        try {
+            return Long.valueOf(guestId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
     // Periodic metrics reset (for demonstration)
     public void resetActiveUsers() {
         activeUsers.set(0);
@@ -1,17 +1,28 @@
 package com.wedding.api.service;
 
+import com.wedding.api.cache.CacheBatchLookup;
+import com.wedding.api.jfr.RsvpSubmitEvent;
+import com.wedding.api.jfr.StatsComputationEvent;
 import com.wedding.api.model.RSVP;
+import com.wedding.api.outbox.OutboxService;
+import com.wedding.api.repository.GuestRepository;
 import com.wedding.api.repository.RSVPRepository;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -20,37 +31,108 @@ public class RSVPService {
     @Autowired
     private RSVPRepository rsvpRepository;
     
+    @Autowired
+    private GuestRepository guestRepository;
+    
     @Autowired
     private MeterRegistry meterRegistry;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
     @Timed(value = "wedding.service.rsvp.submit", description = "Time to submit RSVP")
     public RSVP submitRSVP(RSVP rsvp) {
-        // Simulate complex business logic
-        simulateProcessingDelay(200, 500);
-        
-        // Check if RSVP already exists for this guest
-        rsvpRepository.findByGuestId(rsvp.getGuestId())
-                .ifPresent(existingRSVP -> {
-                    throw new RuntimeException("RSVP already exists for guest ID: " + rsvp.getGuestId());
-                });
-        
-        RSVP savedRSVP = rsvpRepository.save(rsvp);
-        
-        // Record custom metrics based on status
-        meterRegistry.counter("wedding.rsvp.submitted.total", 
-                "status", savedRSVP.getStatus().toString()).increment();
-        
-        return savedRSVP;
+        RsvpSubmitEvent jfrEvent = new RsvpSubmitEvent(rsvp.getGuestId(), String.valueOf(rsvp.getStatus()));
+        jfrEvent.begin();
+        try {
+            // Simulate complex business logic
+            simulateProcessingDelay(200, 500);
+            
+            // The lookup is filtered to the current wedding, so a guest of another wedding (which may
+            // even share this id, as each shard assigns its own) counts as not found
+            if (!guestRepository.existsById(rsvp.getGuestId())) {
+                throw new RuntimeException("Guest not found with id: " + rsvp.getGuestId());
+            }
+            
+            // Check if RSVP already exists for this guest
+            rsvpRepository.findByGuestId(rsvp.getGuestId())
+                    .ifPresent(existingRSVP -> {
+                        throw new RuntimeException("RSVP already exists for guest ID: " + rsvp.getGuestId());
+                    });
+            
+            RSVP savedRSVP = rsvpRepository.save(rsvp);
+            
+            // Side effects are recorded in the same transaction and delivered by OutboxRelay
+            outboxService.record("RSVP", savedRSVP.getId(), OutboxService.RSVP_SUBMITTED, savedRSVP);
+            
+            // Record custom metrics based on status
+            meterRegistry.counter("wedding.rsvp.submitted.total", 
+                    "status", savedRSVP.getStatus().toString()).increment();
+            
+            jfrEvent.setSuccess(true);
+            return savedRSVP;
+        } finally {
+            jfrEvent.commit();
+        }
     }
     
     @Timed(value = "wedding.service.rsvp.get", description = "Time to get RSVP by guest ID")
+    @Cacheable(value = "rsvps", key = "#guestId")
+    @Transactional(readOnly = true)
     public RSVP getRSVPByGuestId(Long guestId) {
         return rsvpRepository.findByGuestId(guestId)
                 .orElseThrow(() -> new RuntimeException("RSVP not found for guest ID: " + guestId));
     }
     
+    // Multi-get by guest id: "rsvps" cache first, then one findByGuestIdIn for the misses.
+    // Guests without an RSVP are listed under notFound rather than failing the batch.
+    @Timed(value = "wedding.service.rsvp.get.batch", description = "Time to get RSVPs by guest id list")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRSVPsByGuestIds(List<Long> guestIds) {
+        LinkedHashSet<Long> uniqueIds = new LinkedHashSet<>(guestIds);
+        if (uniqueIds.size() > GuestService.MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + GuestService.MAX_BATCH_SIZE + " guest ids per batch");
+        }
+        Map<Long, RSVP> rsvps = CacheBatchLookup.getAll(cacheManager.getCache("rsvps"), uniqueIds, RSVP.class,
+                misses -> rsvpRepository.findByGuestIdIn(misses).stream()
+                        .collect(Collectors.toMap(RSVP::getGuestId, rsvp -> rsvp, (first, second) -> first)),
+                meterRegistry);
+        
+        List<RSVP> found = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long guestId : uniqueIds) {
+            RSVP rsvp = rsvps.get(guestId);
+            if (rsvp != null) {
+                found.add(rsvp);
+            } else {
+                notFound.add(guestId);
+            }
+        }
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("rsvps", found);
+        response.put("notFound", notFound);
+        return response;
+    }
+    
     @Timed(value = "wedding.service.rsvp.stats", description = "Time to calculate RSVP statistics")
+    @Transactional(readOnly = true)
     public Map<String, Object> calculateRSVPStats() {
+        StatsComputationEvent jfrEvent = new StatsComputationEvent("rsvp-stats");
+        jfrEvent.begin();
+        try {
+            Map<String, Object> stats = computeRSVPStats();
+            jfrEvent.setSuccess(true);
+            return stats;
+        } finally {
+            jfrEvent.commit();
+        }
+    }
+    
+    private Map<String, Object> computeRSVPStats() {
         // Simulate complex aggregation processing
         simulateProcessingDelay(300, 700);
         
@@ -78,8 +160,10 @@ public class RSVPService {
         return stats;
     }
     
-    @Async
+    // Called by the outbox relay workers; no transaction, so a worker doesn't hold a pooled
+    // connection for the whole (slow) send
     @Timed(value = "wedding.service.rsvp.email", description = "Time to send confirmation email")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void sendConfirmationEmail(RSVP rsvp) {
         // Simulate email sending delay
         simulateProcessingDelay(1000, 2000);
@@ -91,6 +175,7 @@ public class RSVPService {
         meterRegistry.counter("wedding.email.sent.total", "type", "rsvp_confirmation").increment();
     }
     
+    @Transactional(readOnly = true)
     public List<RSVP> getRSVPsByStatus(RSVP.RSVPStatus status) {
         return rsvpRepository.findByStatus(status);
     }
@@ -0,0 +1,436 @@
+package com.wedding.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wedding.api.event.DataChangedEvent;
+import com.wedding.api.intake.IntakeLog;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.outbox.OutboxService;
+import com.wedding.api.repository.RSVPRepository;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Write-behind RSVP intake for submission bursts. submit() appends the RSVP to a local
+// memory-mapped log and returns immediately; a scheduled drainer batch-inserts pending
+// RSVPs into Postgres and then advances the log checkpoint. Anything not yet drained
+// when the process dies is replayed from the log on the next start. Each log record carries
+// the wedding it was submitted for, and batches never mix weddings, so every batch is
+// inserted on its wedding's shard under its wedding's tenant context.
+// A batch that keeps failing for a reason other than the database being unreachable is split
+// in half until the failing record is isolated; that record is moved to a dead-letter file so
+// it can't hold up every later RSVP.
+// submit() does not touch the database: unknown guests and guests who already answered are
+// caught by the guarded insert when the batch drains, and those rows go to the dead-letter file too.
+// A record replayed after a crash between commit and checkpoint also inserts nothing; its row is
+// found by guest, wedding and submitted_at and counted as inserted rather than dead-lettered.
+@Service
+@ConditionalOnProperty(name = "wedding.rsvp.write-behind.enabled", havingValue = "true")
+public class RSVPWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RSVPWriteBehindService.class);
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+    private static final String REJECTED_REASON = "Rejected by the database: duplicate RSVP or unknown guest";
+
+    // Guarded so that replays (after a crash between commit and checkpoint) and RSVPs for
+    // unknown guests (or another wedding's guests) are skipped row by row instead of failing the whole batch
+    private static final String INSERT_SQL =
+            "INSERT INTO rsvps (wedding_id, guest_id, status, plus_one_attending, message, submitted_at) " +
+            "SELECT ?, ?, ?, ?, ?, ? " +
+            "WHERE EXISTS (SELECT 1 FROM guests WHERE id = ? AND wedding_id = ?) " +
+            "ON CONFLICT (guest_id) DO NOTHING";
+
+    // The row a replayed record inserted before the crash; another RSVP for the guest won't match
+    private static final String ALREADY_INSERTED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM rsvps WHERE guest_id = ? AND wedding_id = ? AND submitted_at = ?)";
+
+    @Autowired
+    private RSVPRepository rsvpRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${wedding.rsvp.write-behind.log-dir:/app/data/rsvp-intake}")
+    private String logDir;
+
+    @Value("${wedding.rsvp.write-behind.segment-size-bytes:16777216}")
+    private int segmentSizeBytes;
+
+    @Value("${wedding.rsvp.write-behind.force-on-append:false}")
+    private boolean forceOnAppend;
+
+    @Value("${wedding.rsvp.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${wedding.rsvp.write-behind.max-pending:50000}")
+    private int maxPending;
+
+    // Failed attempts before a batch is split, or a single record dead-lettered
+    @Value("${wedding.rsvp.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    private final MeterRegistry meterRegistry;
+
+    private IntakeLog intakeLog;
+    private final ConcurrentLinkedQueue<PendingRSVP> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Guests with an RSVP sitting in the log, so duplicates are rejected before they are drained
+    private final Set<Long> pendingGuestIds = ConcurrentHashMap.newKeySet();
+
+    // Drainer state (scheduler thread only): failed attempts of the batch at the head of the
+    // queue, and the current batch size cap while a failing batch is being bisected
+    private int headAttempts;
+    private int batchLimit;
+
+    private final Counter accepted;
+    private final Counter inserted;
+    private final Counter skipped;
+    private final Counter deadLettered;
+    private final Timer drainTimer;
+
+    public RSVPWriteBehindService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.accepted = Counter.builder("wedding.rsvp.writebehind.accepted")
+                .description("RSVPs appended to the intake log")
+                .register(meterRegistry);
+        this.inserted = Counter.builder("wedding.rsvp.writebehind.inserted")
+                .description("RSVPs drained from the intake log into the database")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("wedding.rsvp.writebehind.skipped")
+                .description("Drained RSVPs the database rejected as duplicates or for unknown guests (also dead-lettered)")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("wedding.rsvp.writebehind.deadlettered")
+                .description("Drained RSVPs that kept failing and were moved to the dead-letter file")
+                .register(meterRegistry);
+        this.drainTimer = Timer.builder("wedding.rsvp.writebehind.drain")
+                .description("Time to batch-insert one drained batch")
+                .register(meterRegistry);
+        Gauge.builder("wedding.rsvp.writebehind.pending", pendingCount, AtomicInteger::get)
+                .description("RSVPs accepted but not yet in the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void replay() throws IOException {
+        batchLimit = batchSize;
+        intakeLog = new IntakeLog(Path.of(logDir), segmentSizeBytes, forceOnAppend);
+        List<IntakeLog.Record> records = intakeLog.open();
+        for (IntakeLog.Record record : records) {
+            JsonNode payload = objectMapper.readTree(record.getPayload());
+            PendingRSVP entry;
+            if (payload.has("rsvp")) {
+                entry = new PendingRSVP(record.getSequence(), payload.get("weddingId").asText(),
+                        objectMapper.treeToValue(payload.get("rsvp"), RSVP.class));
+            } else {
+                // Written before multi-wedding support: a bare RSVP for the default wedding
+                entry = new PendingRSVP(record.getSequence(), TenantContext.DEFAULT_WEDDING_ID,
+                        objectMapper.treeToValue(payload, RSVP.class));
+            }
+            normalize(entry.rsvp);
+            enqueue(entry);
+        }
+        if (!records.isEmpty()) {
+            logger.info("Replaying {} RSVPs from the intake log in {}", records.size(), logDir);
+        }
+    }
+
+    // Returns false when the log is saturated; the caller should fall back to a synchronous submit
+    public boolean submit(RSVP rsvp) {
+        if (pendingCount.get() >= maxPending) {
+            meterRegistry.counter("wedding.rsvp.writebehind.rejected", "reason", "full").increment();
+            return false;
+        }
+        if (rsvp.getGuestId() == null || rsvp.getStatus() == null) {
+            throw new RuntimeException("RSVP needs a guest ID and a status");
+        }
+        normalize(rsvp);
+        if (!pendingGuestIds.add(rsvp.getGuestId())) {
+            throw new RuntimeException("RSVP already exists for guest ID: " + rsvp.getGuestId());
+        }
+
+        String weddingId = TenantContext.current();
+        try {
+            ObjectNode envelope = objectMapper.createObjectNode();
+            envelope.put("weddingId", weddingId);
+            envelope.set("rsvp", objectMapper.valueToTree(rsvp));
+            byte[] payload = objectMapper.writeValueAsBytes(envelope);
+            // Queue order must match log order, otherwise a checkpoint could skip an undrained record
+            synchronized (pending) {
+                long sequence = intakeLog.append(payload);
+                enqueue(new PendingRSVP(sequence, weddingId, rsvp));
+            }
+        } catch (Exception e) {
+            pendingGuestIds.remove(rsvp.getGuestId());
+            throw new RuntimeException("Failed to append RSVP to intake log: " + e.getMessage(), e);
+        }
+
+        accepted.increment();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.rsvp.write-behind.drain-interval-ms:250}")
+    public synchronized void drain() {
+        List<PendingRSVP> batch;
+        while (!(batch = peekBatch()).isEmpty()) {
+            List<PendingRSVP> current = batch;
+            String weddingId = current.get(0).weddingId;
+            Outcome[] results;
+            try {
+                results = drainTimer.record(() -> TenantContext.callAs(weddingId, () -> transactionTemplate.execute(status -> {
+                    Outcome[] outcomes = insertBatch(current);
+                    recordOutboxMessages(current, outcomes);
+                    return outcomes;
+                })));
+            } catch (Exception e) {
+                // Leave the batch in place; it is retried on the next tick
+                logger.warn("Failed to drain {} RSVPs for wedding {} from the intake log: {}",
+                        batch.size(), weddingId, e.getMessage());
+                onDrainFailure(current, e);
+                return;
+            }
+            headAttempts = 0;
+            batchLimit = batchSize;
+
+            List<Long> insertedGuestIds = new ArrayList<>();
+            for (int i = 0; i < current.size(); i++) {
+                PendingRSVP entry = pending.poll();
+                pendingCount.decrementAndGet();
+                pendingGuestIds.remove(entry.rsvp.getGuestId());
+                if (results[i] != Outcome.REJECTED) {
+                    insertedGuestIds.add(entry.rsvp.getGuestId());
+                    meterRegistry.counter("wedding.rsvp.submitted.total",
+                            "status", entry.rsvp.getStatus().toString()).increment();
+                } else {
+                    logger.warn("Skipped drained RSVP for guest {} of wedding {}: duplicate or unknown guest",
+                            entry.rsvp.getGuestId(), entry.weddingId);
+                    // Already past the checkpoint, so a failed write here is only logged
+                    try {
+                        appendDeadLetter(entry, REJECTED_REASON);
+                    } catch (IOException e) {
+                        logger.error("Failed to dead-letter rejected RSVP for guest {}: {}",
+                                entry.rsvp.getGuestId(), e.getMessage());
+                    }
+                }
+            }
+            inserted.increment(insertedGuestIds.size());
+            skipped.increment(current.size() - insertedGuestIds.size());
+
+            try {
+                intakeLog.checkpoint(current.get(current.size() - 1).sequence);
+            } catch (IOException e) {
+                // Rows are committed; a stale checkpoint only means a harmless (guarded) replay
+                logger.warn("Failed to write intake log checkpoint: {}", e.getMessage());
+            }
+
+            if (!insertedGuestIds.isEmpty()) {
+                // Listeners evict tenant-scoped caches, so they have to run as the batch's wedding
+                TenantContext.runAs(weddingId, () -> eventPublisher.publishEvent(
+                        new DataChangedEvent(RSVP.class, null, DataChangedEvent.ChangeType.CREATED, weddingId)));
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drain();
+        intakeLog.close();
+    }
+
+    // Fields the insert needs but the request may leave out (submittedAt: null in the JSON)
+    private void normalize(RSVP rsvp) {
+        if (rsvp.getSubmittedAt() == null) {
+            rsvp.setSubmittedAt(LocalDateTime.now());
+        }
+        if (rsvp.getPlusOneAttending() == null) {
+            rsvp.setPlusOneAttending(false);
+        }
+    }
+
+    private void onDrainFailure(List<PendingRSVP> batch, Exception e) {
+        // An unreachable database fails every batch alike; just keep retrying
+        if (isTransient(e) || ++headAttempts < maxAttempts) {
+            return;
+        }
+        headAttempts = 0;
+        if (batch.size() > 1) {
+            batchLimit = batch.size() / 2;
+            logger.warn("Batch of {} RSVPs keeps failing, retrying in batches of {}", batch.size(), batchLimit);
+        } else {
+            deadLetter(batch.get(0), e);
+        }
+    }
+
+    private static boolean isTransient(Exception e) {
+        return e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    // Appends the record to dead-letter.jsonl next to the log, then drops it from the queue
+    private void deadLetter(PendingRSVP entry, Exception e) {
+        try {
+            appendDeadLetter(entry, String.valueOf(e.getMessage()));
+        } catch (IOException ioe) {
+            // Keep the record queued rather than lose it
+            logger.error("Failed to dead-letter RSVP for guest {}: {}", entry.rsvp.getGuestId(), ioe.getMessage());
+            return;
+        }
+
+        pending.poll();
+        pendingCount.decrementAndGet();
+        pendingGuestIds.remove(entry.rsvp.getGuestId());
+        deadLettered.increment();
+        batchLimit = batchSize;
+        logger.error("Moved RSVP for guest {} of wedding {} to {} after repeated failures: {}",
+                entry.rsvp.getGuestId(), entry.weddingId, DEAD_LETTER_FILE, e.getMessage());
+        try {
+            intakeLog.checkpoint(entry.sequence);
+        } catch (IOException ioe) {
+            logger.warn("Failed to write intake log checkpoint: {}", ioe.getMessage());
+        }
+    }
+
+    private void appendDeadLetter(PendingRSVP entry, String error) throws IOException {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("sequence", entry.sequence);
+        line.put("weddingId", entry.weddingId);
+        line.put("error", error);
+        line.set("rsvp", objectMapper.valueToTree(entry.rsvp));
+        Files.write(Path.of(logDir, DEAD_LETTER_FILE),
+                (objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void enqueue(PendingRSVP entry) {
+        pendingGuestIds.add(entry.rsvp.getGuestId());
+        pending.add(entry);
+        pendingCount.incrementAndGet();
+    }
+
+    // Only the scheduler thread removes entries, so the head of the queue is stable while draining.
+    // A batch is the run of entries at the head that belong to the same wedding.
+    private List<PendingRSVP> peekBatch() {
+        List<PendingRSVP> batch = new ArrayList<>(batchSize);
+        for (PendingRSVP entry : pending) {
+            if (batch.size() == batchLimit || (!batch.isEmpty() && !batch.get(0).weddingId.equals(entry.weddingId))) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    private Outcome[] insertBatch(List<PendingRSVP> batch) {
+        int[] rows = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+            RSVP rsvp = entry.rsvp;
+            statement.setString(1, entry.weddingId);
+            statement.setLong(2, rsvp.getGuestId());
+            statement.setString(3, rsvp.getStatus().getValue());
+            statement.setBoolean(4, Boolean.TRUE.equals(rsvp.getPlusOneAttending()));
+            statement.setString(5, rsvp.getMessage());
+            statement.setTimestamp(6, Timestamp.valueOf(rsvp.getSubmittedAt()));
+            statement.setLong(7, rsvp.getGuestId());
+            statement.setString(8, entry.weddingId);
+        })[0];
+
+        Outcome[] outcomes = new Outcome[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            if (rows[i] > 0) {
+                outcomes[i] = Outcome.INSERTED;
+            } else {
+                RSVP rsvp = batch.get(i).rsvp;
+                Boolean found = jdbcTemplate.queryForObject(ALREADY_INSERTED_SQL, Boolean.class,
+                        rsvp.getGuestId(), batch.get(i).weddingId, Timestamp.valueOf(rsvp.getSubmittedAt()));
+                outcomes[i] = Boolean.TRUE.equals(found) ? Outcome.ALREADY_INSERTED : Outcome.REJECTED;
+            }
+        }
+        return outcomes;
+    }
+
+    // Same transaction as the insert, so every drained RSVP gets exactly one outbox message
+    // Already-inserted rows got theirs in the transaction that inserted them
+    private void recordOutboxMessages(List<PendingRSVP> batch, Outcome[] outcomes) {
+        List<Long> insertedGuestIds = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] == Outcome.INSERTED) {
+                insertedGuestIds.add(batch.get(i).rsvp.getGuestId());
+            }
+        }
+        if (insertedGuestIds.isEmpty()) {
+            return;
+        }
+        for (RSVP saved : rsvpRepository.findByGuestIdIn(insertedGuestIds)) {
+            outboxService.record("RSVP", saved.getId(), OutboxService.RSVP_SUBMITTED, saved);
+        }
+    }
+
+    private enum Outcome {
+        INSERTED,
+        // Replayed record whose row was committed before the last checkpoint was written
+        ALREADY_INSERTED,
+        REJECTED
+    }
+
+    private static class PendingRSVP {
+        private final long sequence;
+        private final String weddingId;
+        private final RSVP rsvp;
+
+        PendingRSVP(long sequence, String weddingId, RSVP rsvp) {
+            this.sequence = sequence;
+            this.weddingId = weddingId;
+            this.rsvp = rsvp;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.wedding.api.service;
+
+import com.wedding.api.event.DataChangedEvent;
+import com.wedding.api.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Computes the dashboard stats once per change (or once per max-snapshot-age) and pushes
+// them to every SSE subscriber, so the database cost no longer scales with viewer count.
+// Each wedding has its own channel (subscribers, last snapshot, dirty flag); a change in one
+// wedding only recomputes and notifies that wedding's viewers.
+// Each subscriber has a bounded buffer; one that falls behind is disconnected. A channel is
+// dropped with its last subscriber.
+// SseEmitter.send blocks while the client's TCP window is full, so a send that runs longer than
+// send-timeout-ms marks its subscriber stalled: it is disconnected, and the pool gets a thread in
+// place of the one stuck in the send until the servlet container's write timeout releases it.
+@Service
+public class StatsStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsStreamService.class);
+
+    // Always changes, so it is sent with every delta but never counts as a change by itself
+    private static final String LAST_UPDATED = "lastUpdated";
+
+    private static final long STALLED = -1;
+
+    @Autowired
+    private EventService eventService;
+
+    @Value("${wedding.stats-stream.max-snapshot-age-ms:30000}")
+    private long maxSnapshotAgeMs;
+
+    @Value("${wedding.stats-stream.client-buffer-size:16}")
+    private int clientBufferSize;
+
+    @Value("${wedding.stats-stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${wedding.stats-stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    // Senders stuck in a stalled subscriber's send; the pool is grown by this many
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+
+    private final Counter snapshotsComputed;
+    private final Counter eventsSent;
+    private final Counter slowConsumersDropped;
+
+    public StatsStreamService(MeterRegistry meterRegistry,
+                              @Value("${wedding.stats-stream.sender-threads:4}") int senderThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senderThreads = senderThreads;
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "stats-stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.snapshotsComputed = Counter.builder("wedding.stats.stream.snapshots")
+                .description("Number of dashboard snapshots computed for the stats stream")
+                .register(meterRegistry);
+        this.eventsSent = Counter.builder("wedding.stats.stream.events.sent")
+                .description("Number of SSE events delivered to stats stream subscribers")
+                .register(meterRegistry);
+        this.slowConsumersDropped = Counter.builder("wedding.stats.stream.dropped")
+                .description("Number of subscribers disconnected because their buffer overflowed or a send stalled")
+                .register(meterRegistry);
+        Gauge.builder("wedding.stats.stream.subscribers", this, StatsStreamService::getSubscriberCount)
+                .description("Number of connected stats stream subscribers, all weddings")
+                .register(meterRegistry);
+    }
+
+    // Subscribes to the stats of the current request's wedding
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(TenantContext.current(), Channel::new);
+            synchronized (channel) {
+                // Lost a race with the removal of the channel's last subscriber
+                if (channel.closed) {
+                    continue;
+                }
+                Subscriber subscriber = new Subscriber(channel, emitter, clientBufferSize);
+                emitter.onCompletion(() -> remove(subscriber));
+                emitter.onTimeout(() -> remove(subscriber));
+                emitter.onError(error -> remove(subscriber));
+                channel.subscribers.add(subscriber);
+                if (channel.lastSnapshot != null) {
+                    subscriber.primed = true;
+                    enqueue(subscriber, new StreamEvent("snapshot", channel.lastSnapshot));
+                }
+            }
+            return emitter;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(DataChangedEvent event) {
+        Channel channel = channels.get(event.getWeddingId());
+        if (channel != null) {
+            channel.dirty.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.stats-stream.tick-ms:2000}")
+    public void tick() {
+        for (Channel channel : channels.values()) {
+            dropStalled(channel);
+            if (channel.subscribers.isEmpty()) {
+                continue;
+            }
+            TenantContext.runAs(channel.weddingId, () -> tick(channel));
+        }
+    }
+
+    private void dropStalled(Channel channel) {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : channel.subscribers) {
+            long startedAt = subscriber.sendStartedAt.get();
+            if (startedAt > 0 && now - startedAt >= sendTimeoutMs
+                    && subscriber.sendStartedAt.compareAndSet(startedAt, STALLED)) {
+                // The emitter is locked by the blocked send, so drain() completes it once the send returns
+                resizeSenders(stalledSenders.incrementAndGet());
+                drop(subscriber);
+                logger.debug("Stats stream subscriber of wedding {} stalled in a send for {} ms",
+                        channel.weddingId, now - startedAt);
+            }
+        }
+    }
+
+    private synchronized void resizeSenders(int stalled) {
+        int size = senderThreads + stalled;
+        if (size > senders.getMaximumPoolSize()) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void tick(Channel channel) {
+        boolean stale = System.currentTimeMillis() - channel.lastSnapshotAt >= maxSnapshotAgeMs;
+        if (!channel.dirty.getAndSet(false) && !stale && channel.lastSnapshot != null) {
+            channel.subscribers.forEach(subscriber -> enqueue(subscriber, StreamEvent.KEEPALIVE));
+            return;
+        }
+
+        Map<String, Object> snapshot;
+        try {
+            snapshot = eventService.getDashboardStats();
+        } catch (Exception e) {
+            // Try again on the next tick rather than pushing a partial snapshot
+            channel.dirty.set(true);
+            logger.warn("Failed to compute stats snapshot for wedding {}: {}", channel.weddingId, e.getMessage());
+            return;
+        }
+        snapshotsComputed.increment();
+
+        synchronized (channel) {
+            Map<String, Object> lastSnapshot = channel.lastSnapshot;
+            Map<String, Object> delta = lastSnapshot != null ? diff(lastSnapshot, snapshot) : snapshot;
+            boolean changed = delta.keySet().stream().anyMatch(key -> !LAST_UPDATED.equals(key));
+            if (changed) {
+                delta.put(LAST_UPDATED, snapshot.get(LAST_UPDATED));
+            }
+
+            channel.lastSnapshot = snapshot;
+            channel.lastSnapshotAt = System.currentTimeMillis();
+
+            for (Subscriber subscriber : channel.subscribers) {
+                if (!subscriber.primed) {
+                    subscriber.primed = true;
+                    enqueue(subscriber, new StreamEvent("snapshot", snapshot));
+                } else if (changed) {
+                    enqueue(subscriber, new StreamEvent("delta", delta));
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    private void remove(Subscriber subscriber) {
+        Channel channel = subscriber.channel;
+        synchronized (channel) {
+            if (channel.subscribers.remove(subscriber) && channel.subscribers.isEmpty()) {
+                channel.closed = true;
+                channels.remove(channel.weddingId, channel);
+            }
+        }
+    }
+
+    // Keys whose values differ; nested maps (rsvpStats) are diffed recursively
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            Object before = previous.get(entry.getKey());
+            Object after = entry.getValue();
+            if (before instanceof Map && after instanceof Map) {
+                Map<String, Object> nested = diff((Map<String, Object>) before, (Map<String, Object>) after);
+                if (!nested.isEmpty()) {
+                    delta.put(entry.getKey(), nested);
+                }
+            } else if (!Objects.equals(before, after) && !LAST_UPDATED.equals(entry.getKey())) {
+                delta.put(entry.getKey(), after);
+            }
+        }
+        return delta;
+    }
+
+    private void enqueue(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.dropped) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            // Buffer full: the client is not keeping up, so cut it loose instead of buffering without bound
+            drop(subscriber);
+            // Complete it here unless a sender is busy with it, which then does so itself
+            if (subscriber.draining.compareAndSet(false, true)) {
+                close(subscriber, null);
+            }
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscriber.dropped = true;
+        slowConsumersDropped.increment();
+        remove(subscriber);
+        subscriber.queue.clear();
+    }
+
+    // Completes the emitter once; only called when no send to it is in progress
+    private void close(Subscriber subscriber, Throwable error) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            if (error != null) {
+                subscriber.emitter.completeWithError(error);
+            } else {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        boolean stalled = false;
+        try {
+            StreamEvent event;
+            while (!subscriber.dropped && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt.set(System.currentTimeMillis());
+                try {
+                    subscriber.emitter.send(event.toSse());
+                } finally {
+                    stalled = subscriber.sendStartedAt.getAndSet(0) == STALLED;
+                }
+                eventsSent.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            subscriber.queue.clear();
+            close(subscriber, e);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (stalled) {
+            // The send this thread was stuck in has returned; give back the thread added in its place
+            resizeSenders(stalledSenders.decrementAndGet());
+        }
+        if (subscriber.dropped) {
+            close(subscriber, null);
+            return;
+        }
+        // Pick up anything enqueued between the last poll and releasing the flag
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Channel channel : channels.values()) {
+            channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            channel.subscribers.clear();
+        }
+        senders.shutdownNow();
+    }
+
+    // Event builders are mutable, so shared payloads are queued and turned into SSE events per subscriber
+    private static class StreamEvent {
+        private static final StreamEvent KEEPALIVE = new StreamEvent(null, null);
+
+        private final String name;
+        private final Object data;
+
+        StreamEvent(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("keepalive");
+            }
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private static class Channel {
+        private final String weddingId;
+        private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean dirty = new AtomicBoolean(true);
+        private volatile Map<String, Object> lastSnapshot;
+        private volatile long lastSnapshotAt;
+        // Set under the channel's lock once its last subscriber is gone and it left the map
+        private boolean closed;
+
+        Channel(String weddingId) {
+            this.weddingId = weddingId;
+        }
+    }
+
+    private static class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private volatile boolean primed;
+        // Start of the send in progress, 0 between sends, STALLED once the watchdog gave up on it
+        private final AtomicLong sendStartedAt = new AtomicLong();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile boolean dropped;
+
+        Subscriber(Channel channel, SseEmitter emitter, int bufferSize) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.wedding.api.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Sends each connection request to the shard of the current wedding, or to the pinned shard
+// inside TenantContext.runOnShard. Transactions bind their connection up front, so a
+// transaction never spans shards.
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final TenantShards tenantShards;
+
+    public ShardRoutingDataSource(TenantShards tenantShards, Map<String, DataSource> shards) {
+        this.tenantShards = tenantShards;
+        setTargetDataSources(new HashMap<>(shards));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pinned = TenantContext.pinnedShard();
+        return pinned != null ? pinned : tenantShards.shardFor(TenantContext.current());
+    }
+}
@@ -0,0 +1,77 @@
+package com.wedding.api.tenant;
+
+import java.util.function.Supplier;
+
+// Wedding (tenant) the current thread works for. Set per request by TenantFilter; background
+// jobs that act for a specific wedding wrap their work in runAs/callAs. Hibernate's @TenantId
+// columns, the tenant-scoped caches and the shard router all read it from here.
+public final class TenantContext {
+
+    // Rows that existed before multi-wedding support belong to this tenant
+    public static final String DEFAULT_WEDDING_ID = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> PINNED_SHARD = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String weddingId = CURRENT.get();
+        return weddingId != null ? weddingId : DEFAULT_WEDDING_ID;
+    }
+
+    // Returns the previous wedding id, which the caller must hand back to restore()
+    public static String enter(String weddingId) {
+        String previous = CURRENT.get();
+        CURRENT.set(weddingId);
+        return previous;
+    }
+
+    public static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static void runAs(String weddingId, Runnable task) {
+        String previous = enter(weddingId);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static <T> T callAs(String weddingId, Supplier<T> task) {
+        String previous = enter(weddingId);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // For jobs that sweep a whole shard (outbox relay, analytics rollups, migrations) rather than
+    // one wedding: connections go to this shard whatever the current wedding is
+    public static void runOnShard(String shard, Runnable task) {
+        String previous = PINNED_SHARD.get();
+        PINNED_SHARD.set(shard);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                PINNED_SHARD.remove();
+            } else {
+                PINNED_SHARD.set(previous);
+            }
+        }
+    }
+
+    // Null unless inside runOnShard
+    public static String pinnedShard() {
+        return PINNED_SHARD.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.wedding.api.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Resolves the wedding a request is for and binds it to TenantContext for the whole request.
+// The wedding comes from the X-Wedding-Id header or from a /api/weddings/{weddingId}/... prefix;
+// the prefix is stripped so both forms reach the same controller mappings. Requests naming
+// neither act on the default wedding, which keeps existing single-wedding clients working.
+// Only weddings in the WeddingRegistry are served; any other well-formed id gets a 404.
+// Runs ahead of the concurrency limiter so its route rules see the stripped path.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Wedding-Id";
+    public static final String MDC_KEY = "wedding_id";
+
+    private static final Pattern PATH_PREFIX = Pattern.compile("^/api/weddings/([^/]+)(/.*)$");
+    // Lowercase slug; fits the wedding_id VARCHAR(64) columns
+    private static final Pattern WEDDING_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+
+    @Autowired
+    private WeddingRegistry weddingRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    // SSE and other async results are dispatched again under the original URI, which needs the same stripping
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String fromHeader = request.getHeader(HEADER);
+        String fromPath = null;
+        HttpServletRequest effectiveRequest = request;
+
+        Matcher matcher = PATH_PREFIX.matcher(request.getRequestURI());
+        if (matcher.matches()) {
+            fromPath = matcher.group(1);
+            effectiveRequest = new StrippedPathRequest(request, "/api" + matcher.group(2));
+        }
+
+        if (fromHeader != null && fromPath != null && !fromHeader.equals(fromPath)) {
+            reject(response, HttpStatus.BAD_REQUEST, "Wedding id in the path and " + HEADER + " header differ");
+            return;
+        }
+        String weddingId = fromPath != null ? fromPath : fromHeader != null ? fromHeader : TenantContext.DEFAULT_WEDDING_ID;
+        if (!WEDDING_ID.matcher(weddingId).matches()) {
+            reject(response, HttpStatus.BAD_REQUEST, "Invalid wedding id: use lowercase letters, digits and '-', at most 64 characters");
+            return;
+        }
+        if (!weddingRegistry.isKnown(weddingId)) {
+            reject(response, HttpStatus.NOT_FOUND, "Unknown wedding: " + weddingId);
+            return;
+        }
+        weddingRegistry.touch(weddingId);
+
+        String previous = TenantContext.enter(weddingId);
+        MDC.put(MDC_KEY, weddingId);
+        response.setHeader(HEADER, weddingId);
+        // The same URI answers for different weddings depending on the header, so shared caches must key on it
+        response.addHeader(HttpHeaders.VARY, HEADER);
+        try {
+            filterChain.doFilter(effectiveRequest, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+            TenantContext.restore(previous);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    // Presents /api/weddings/{id}/guests as /api/guests to everything downstream
+    private static class StrippedPathRequest extends HttpServletRequestWrapper {
+        private final String path;
+
+        StrippedPathRequest(HttpServletRequest request, String path) {
+            super(request);
+            this.path = path;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return getContextPath() + path;
+        }
+
+        @Override
+        public String getServletPath() {
+            return path;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            StringBuffer url = new StringBuffer();
+            url.append(getScheme()).append("://").append(getServerName()).append(':').append(getServerPort())
+                    .append(getRequestURI());
+            return url;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.wedding.api.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+// Gives each Hibernate session the wedding bound to the opening thread. Sessions fix their tenant
+// when they open, which for requests is after TenantFilter has run (open-in-view) and for
+// background work is inside TenantContext.runAs.
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    // Spring manages session lifecycles; Hibernate's getCurrentSession() is never used
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+package com.wedding.api.tenant;
+
+import com.wedding.api.jfr.CacheAccessEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keys every cache entry by (wedding, key), so @Cacheable(key = "#id") and friends keep working
+// unchanged while weddings never see each other's entries. clear() (and allEntries evictions)
+// only drop the current wedding's entries. Caches listed as shared hold wedding-independent
+// data and are passed through untouched. Lookups in scoped caches emit a CacheAccess JFR event
+// (hit or miss), the same as the refresh-ahead caches.
+public class TenantScopedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Set<String> sharedCaches;
+    private final Map<String, Cache> scopedCaches = new ConcurrentHashMap<>();
+
+    public TenantScopedCacheManager(CacheManager delegate, Set<String> sharedCaches) {
+        this.delegate = delegate;
+        this.sharedCaches = sharedCaches;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = delegate.getCache(name);
+        if (cache == null || sharedCaches.contains(name)) {
+            return cache;
+        }
+        return scopedCaches.computeIfAbsent(name, ignored -> new TenantScopedCache(cache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    // Drops one wedding's entries from every scoped cache, e.g. once it has gone idle
+    public void evictWedding(String weddingId) {
+        scopedCaches.values().forEach(cache -> ((TenantScopedCache) cache).clear(weddingId));
+    }
+
+    private static class TenantScopedCache implements Cache {
+        private final Cache delegate;
+
+        TenantScopedCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            TenantKey scopedKey = scoped(key);
+            ValueWrapper value = delegate.get(scopedKey);
+            CacheAccessEvent.emit(getName(), scopedKey, value != null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            TenantKey scopedKey = scoped(key);
+            T value = delegate.get(scopedKey, type);
+            CacheAccessEvent.emit(getName(), scopedKey, value != null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            TenantKey scopedKey = scoped(key);
+            AtomicBoolean loaded = new AtomicBoolean();
+            T value = delegate.get(scopedKey, () -> {
+                loaded.set(true);
+                return valueLoader.call();
+            });
+            CacheAccessEvent.emit(getName(), scopedKey, !loaded.get());
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(scoped(key), value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return delegate.putIfAbsent(scoped(key), value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(scoped(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return delegate.evictIfPresent(scoped(key));
+        }
+
+        @Override
+        public void clear() {
+            clear(TenantContext.current());
+        }
+
+        void clear(String weddingId) {
+            if (delegate.getNativeCache() instanceof Map<?, ?> entries) {
+                entries.keySet().removeIf(key -> key instanceof TenantKey tenantKey && tenantKey.weddingId.equals(weddingId));
+            } else {
+                // No way to enumerate this provider's keys; dropping everything is safe, only colder
+                delegate.clear();
+            }
+        }
+
+        @Override
+        public boolean invalidate() {
+            clear();
+            return true;
+        }
+
+        private static TenantKey scoped(Object key) {
+            return new TenantKey(TenantContext.current(), key);
+        }
+    }
+
+    private static final class TenantKey {
+        private final String weddingId;
+        private final Object key;
+
+        TenantKey(String weddingId, Object key) {
+            this.weddingId = weddingId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TenantKey that && weddingId.equals(that.weddingId) && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * weddingId.hashCode() + Objects.hashCode(key);
+        }
+
+        @Override
+        public String toString() {
+            return weddingId + ":" + key;
+        }
+    }
+}
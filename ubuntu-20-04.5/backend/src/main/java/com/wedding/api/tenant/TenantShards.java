@@ -0,0 +1,66 @@
+package com.wedding.api.tenant;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Placement of weddings on database shards. "primary" is the application's own datasource;
+// further shards are declared under wedding.tenancy.shards.<name> and weddings are assigned to
+// them in wedding.tenancy.tenant-shards. Unassigned weddings live on the default shard.
+// Without wedding.tenancy.sharding.enabled there is only the primary shard.
+@Component
+public class TenantShards {
+
+    public static final String PRIMARY = "primary";
+
+    private final boolean shardingEnabled;
+    private final String defaultShard;
+    private final Map<String, String> tenantShards;
+    private final Set<String> shardNames;
+
+    public TenantShards(Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.shardingEnabled = binder.bind("wedding.tenancy.sharding.enabled", Boolean.class).orElse(false);
+        Set<String> names = new LinkedHashSet<>();
+        names.add(PRIMARY);
+        if (shardingEnabled) {
+            this.defaultShard = binder.bind("wedding.tenancy.default-shard", String.class).orElse(PRIMARY);
+            this.tenantShards = binder.bind("wedding.tenancy.tenant-shards", Bindable.mapOf(String.class, String.class))
+                    .orElse(Collections.emptyMap());
+            names.addAll(binder.bind("wedding.tenancy.shards", Bindable.mapOf(String.class, HikariConfig.class))
+                    .orElse(Collections.emptyMap()).keySet());
+        } else {
+            this.defaultShard = PRIMARY;
+            this.tenantShards = Collections.emptyMap();
+        }
+        this.shardNames = Collections.unmodifiableSet(names);
+
+        for (Map.Entry<String, String> entry : tenantShards.entrySet()) {
+            if (!shardNames.contains(entry.getValue())) {
+                throw new RuntimeException("Wedding " + entry.getKey() + " is assigned to unknown shard " + entry.getValue());
+            }
+        }
+        if (!shardNames.contains(defaultShard)) {
+            throw new RuntimeException("Unknown default shard " + defaultShard);
+        }
+    }
+
+    public boolean isShardingEnabled() {
+        return shardingEnabled;
+    }
+
+    public String shardFor(String weddingId) {
+        return tenantShards.getOrDefault(weddingId, defaultShard);
+    }
+
+    public Set<String> getShardNames() {
+        return shardNames;
+    }
+}
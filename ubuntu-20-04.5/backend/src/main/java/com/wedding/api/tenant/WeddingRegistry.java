@@ -0,0 +1,84 @@
+package com.wedding.api.tenant;
+
+import com.wedding.api.event.WeddingIdleEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The weddings this deployment serves: "default", everything in wedding.tenancy.weddings and
+// every wedding placed on a shard in wedding.tenancy.tenant-shards. TenantFilter answers 404 for
+// any other id, so clients can't make the app build per-wedding state (caches, schedule
+// snapshots, stats channels) for ids nobody manages. Weddings no request has named for
+// idleEvictionMs have their in-memory state dropped.
+@Component
+public class WeddingRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeddingRegistry.class);
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${wedding.tenancy.idle-eviction-ms:3600000}")
+    private long idleEvictionMs;
+
+    private final Set<String> weddings;
+    // Wedding id -> System.currentTimeMillis() of its latest request
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+
+    public WeddingRegistry(Environment environment) {
+        Binder binder = Binder.get(environment);
+        Set<String> known = new LinkedHashSet<>();
+        known.add(TenantContext.DEFAULT_WEDDING_ID);
+        known.addAll(binder.bind("wedding.tenancy.weddings", Bindable.listOf(String.class))
+                .orElse(Collections.emptyList()));
+        known.addAll(binder.bind("wedding.tenancy.tenant-shards", Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap()).keySet());
+        this.weddings = Collections.unmodifiableSet(known);
+    }
+
+    public boolean isKnown(String weddingId) {
+        return weddings.contains(weddingId);
+    }
+
+    public Set<String> getWeddings() {
+        return weddings;
+    }
+
+    // Called for every request bound to a wedding
+    void touch(String weddingId) {
+        lastSeen.put(weddingId, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${wedding.tenancy.idle-check-ms:300000}",
+               initialDelayString = "${wedding.tenancy.idle-check-ms:300000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMs;
+        for (Map.Entry<String, Long> entry : lastSeen.entrySet()) {
+            if (entry.getValue() < cutoff && lastSeen.remove(entry.getKey(), entry.getValue())) {
+                String weddingId = entry.getKey();
+                if (cacheManager instanceof TenantScopedCacheManager scoped) {
+                    scoped.evictWedding(weddingId);
+                }
+                eventPublisher.publishEvent(new WeddingIdleEvent(weddingId));
+                logger.debug("Dropped in-memory state of idle wedding {}", weddingId);
+            }
+        }
+    }
+}
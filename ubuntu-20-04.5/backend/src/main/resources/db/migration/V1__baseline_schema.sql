@@ -0,0 +1,51 @@
+-- Baseline: the schema previously created by database/init.sql and ddl-auto=update.
+-- Everything is IF NOT EXISTS so databases created the old way are adopted as-is.
+
+CREATE TABLE IF NOT EXISTS guests (
+    id SERIAL PRIMARY KEY,
+    first_name VARCHAR(100) NOT NULL,
+    last_name VARCHAR(100) NOT NULL,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    phone VARCHAR(20),
+    address TEXT,
+    plus_one BOOLEAN DEFAULT FALSE,
+    dietary_restrictions TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS rsvps (
+    id SERIAL PRIMARY KEY,
+    guest_id INTEGER REFERENCES guests(id) ON DELETE CASCADE,
+    status VARCHAR(20) CHECK (status IN ('attending', 'not_attending', 'maybe')) NOT NULL,
+    plus_one_attending BOOLEAN DEFAULT FALSE,
+    message TEXT,
+    submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS wedding_events (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(200) NOT NULL,
+    description TEXT,
+    event_date TIMESTAMP NOT NULL,
+    venue_name VARCHAR(200),
+    venue_address TEXT,
+    dress_code VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox_messages (status, id);
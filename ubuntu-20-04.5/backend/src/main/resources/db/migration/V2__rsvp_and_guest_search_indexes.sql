@@ -0,0 +1,39 @@
+-- One RSVP per guest. findByGuestId already assumes it; write-behind races could still insert a
+-- second row, so the first accepted RSVP is kept and later ones are moved to rsvps_duplicates
+-- (with the time they were moved) before adding the unique index. The count shows up in the
+-- startup log as a Flyway "DB:" line.
+CREATE TABLE IF NOT EXISTS rsvps_duplicates (LIKE rsvps INCLUDING DEFAULTS);
+ALTER TABLE rsvps_duplicates ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+DO $$
+DECLARE
+    moved INTEGER;
+BEGIN
+    WITH duplicates AS (
+        DELETE FROM rsvps a
+            USING rsvps b
+            WHERE a.guest_id = b.guest_id
+              AND a.id > b.id
+            RETURNING a.*
+    )
+    INSERT INTO rsvps_duplicates SELECT * FROM duplicates;
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    RAISE NOTICE 'Moved % duplicate RSVP(s) to rsvps_duplicates', moved;
+END $$;
+
+-- findByGuestId / findByGuestIdIn, the guest+RSVP join and ON CONFLICT (guest_id) in the write-behind drainer
+CREATE UNIQUE INDEX IF NOT EXISTS ux_rsvps_guest_id ON rsvps (guest_id);
+
+-- countByStatus / findByStatus
+CREATE INDEX IF NOT EXISTS idx_rsvps_status ON rsvps (status);
+
+-- Guest search is LOWER(column) LIKE '%term%', which a btree can't serve; trigram GIN indexes on
+-- the same lower() expressions can
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_guests_first_name_trgm ON guests USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_guests_last_name_trgm ON guests USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_guests_email_trgm ON guests USING gin (lower(email) gin_trgm_ops);
+
+-- Event schedule is always read ordered by date
+CREATE INDEX IF NOT EXISTS idx_wedding_events_event_date ON wedding_events (event_date);
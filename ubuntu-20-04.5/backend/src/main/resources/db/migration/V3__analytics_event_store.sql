@@ -0,0 +1,37 @@
+-- Append-only analytics events (page views, RSVP funnel steps), range-partitioned by day.
+-- Daily partitions are created ahead of time and dropped after the raw retention period by
+-- AnalyticsRollupService; the default partition only catches rows outside every daily range.
+CREATE TABLE IF NOT EXISTS analytics_events (
+    occurred_at TIMESTAMP NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    name VARCHAR(200) NOT NULL,
+    browser VARCHAR(30),
+    guest_id BIGINT
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS analytics_events_default PARTITION OF analytics_events DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_analytics_events_occurred_at ON analytics_events (occurred_at);
+
+-- Counts per minute/hour/day bucket; historical queries read only this table
+CREATE TABLE IF NOT EXISTS analytics_rollups (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    name VARCHAR(200) NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, kind, bucket_start, name)
+);
+
+-- How far each granularity has been rolled up; the row lock also keeps replicas from
+-- rolling up the same range twice
+CREATE TABLE IF NOT EXISTS analytics_rollup_state (
+    granularity VARCHAR(10) PRIMARY KEY,
+    rolled_up_to TIMESTAMP NOT NULL
+);
+
+INSERT INTO analytics_rollup_state (granularity, rolled_up_to) VALUES
+    ('minute', date_trunc('minute', LOCALTIMESTAMP)),
+    ('hour', date_trunc('hour', LOCALTIMESTAMP)),
+    ('day', date_trunc('day', LOCALTIMESTAMP))
+ON CONFLICT (granularity) DO NOTHING;
@@ -0,0 +1,30 @@
+-- Multi-wedding tenancy: every tenant-owned table carries the wedding it belongs to.
+-- Existing rows become the 'default' wedding, which is also what clients that send no
+-- wedding id keep using. The application always writes wedding_id explicitly; the column
+-- default only covers instances still running the previous version during a rolling deploy.
+ALTER TABLE guests ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE rsvps ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE wedding_events ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE analytics_events ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE analytics_rollups ADD COLUMN IF NOT EXISTS wedding_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- The same person may be invited to two weddings
+ALTER TABLE guests DROP CONSTRAINT IF EXISTS guests_email_key;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_guests_wedding_email ON guests (wedding_id, email);
+
+-- Every query is now scoped to one wedding, so indexes lead with wedding_id:
+-- guest listings and keyset pages walk (wedding_id, id)
+CREATE INDEX IF NOT EXISTS idx_guests_wedding_id ON guests (wedding_id, id);
+
+-- countByStatus / findByStatus
+DROP INDEX IF EXISTS idx_rsvps_status;
+CREATE INDEX IF NOT EXISTS idx_rsvps_wedding_status ON rsvps (wedding_id, status);
+
+-- The schedule index loads one wedding's events ordered by date
+DROP INDEX IF EXISTS idx_wedding_events_event_date;
+CREATE INDEX IF NOT EXISTS idx_wedding_events_wedding_date ON wedding_events (wedding_id, event_date);
+
+-- Rollups are counted and queried per wedding
+ALTER TABLE analytics_rollups DROP CONSTRAINT IF EXISTS analytics_rollups_pkey;
+ALTER TABLE analytics_rollups ADD PRIMARY KEY (wedding_id, granularity, kind, bucket_start, name);
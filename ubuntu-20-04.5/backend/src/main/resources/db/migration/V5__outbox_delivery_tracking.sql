@@ -0,0 +1,11 @@
+-- Handlers that already succeeded for a message, comma-separated; a retry only runs the rest,
+-- so a failing analytics handler no longer re-sends the confirmation email
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS delivered_handlers TEXT NOT NULL DEFAULT '';
+
+-- The relay only ever looks at pending rows (claims and the lag gauge); published rows are
+-- swept after the retention period, so keep the hot index to the small pending set
+CREATE INDEX IF NOT EXISTS idx_outbox_pending_id ON outbox_messages (id) WHERE status = 'PENDING';
+DROP INDEX IF EXISTS idx_outbox_status_id;
+
+-- Retention sweep
+CREATE INDEX IF NOT EXISTS idx_outbox_published_at ON outbox_messages (published_at) WHERE status = 'PUBLISHED';
@@ -0,0 +1,6 @@
+-- Last change of an event, set by the entity's setters and used for its ETag/Last-Modified.
+-- created_at never changes, so clients and the nginx micro-cache kept revalidating edited
+-- events as unchanged.
+ALTER TABLE wedding_events ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE wedding_events SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+ALTER TABLE wedding_events ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,145 @@
+package com.wedding.api.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs db/migration against a local Postgres and checks that the hot queries are planned on the
+// indexes the migrations add. Skipped unless a database is given, e.g.
+//   mvn test -Dwedding.test.postgres.url=jdbc:postgresql://localhost:5432/wedding_db
+// (user/password default to wedding_user/wedding_pass). Everything happens in its own schema,
+// which is dropped afterwards. With only a few rows the planner prefers sequential scans, so
+// plans are taken with enable_seqscan off.
+@EnabledIfSystemProperty(named = "wedding.test.postgres.url", matches = ".+")
+class MigrationQueryPlanTest {
+
+    private static final String SCHEMA = "migration_plan_test";
+
+    private static Flyway flyway;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        flyway = configure().load();
+        flyway.clean();
+
+        // Stop before V2 to seed the duplicate RSVPs it has to archive before adding ux_rsvps_guest_id
+        configure().target("1").load().migrate();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO guests (id, first_name, last_name, email) VALUES (1, 'Ann', 'Smith', 'ann@example.com')");
+            statement.execute("INSERT INTO rsvps (id, guest_id, status) VALUES (1, 1, 'attending'), (2, 1, 'maybe'), (3, 1, 'not_attending')");
+        }
+        flyway.migrate();
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (flyway != null) {
+            flyway.clean();
+        }
+    }
+
+    @Test
+    void duplicateRsvpsAreArchivedNotDeleted() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            assertThat(queryLong(statement, "SELECT id FROM rsvps WHERE guest_id = 1")).isEqualTo(1L);
+            assertThat(queryLong(statement, "SELECT COUNT(*) FROM rsvps_duplicates WHERE guest_id = 1 AND id IN (2, 3)")).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    void findByGuestIdUsesUniqueGuestIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM rsvps WHERE guest_id = 1")).contains("ux_rsvps_guest_id");
+    }
+
+    @Test
+    void findByGuestIdInUsesUniqueGuestIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM rsvps WHERE guest_id IN (1, 2, 3)")).contains("ux_rsvps_guest_id");
+    }
+
+    // V4 replaced V2's idx_rsvps_status with the wedding-scoped index
+    @Test
+    void countByStatusUsesWeddingStatusIndex() throws SQLException {
+        assertThat(plan("SELECT COUNT(*) FROM rsvps WHERE wedding_id = 'default' AND status = 'attending'"))
+                .contains("idx_rsvps_wedding_status");
+    }
+
+    @Test
+    void guestSearchUsesTrigramIndexes() throws SQLException {
+        assertThat(plan("SELECT * FROM guests WHERE LOWER(first_name) LIKE '%smi%' "
+                + "OR LOWER(last_name) LIKE '%smi%' OR LOWER(email) LIKE '%smi%'"))
+                .contains("idx_guests_first_name_trgm", "idx_guests_last_name_trgm", "idx_guests_email_trgm");
+    }
+
+    @Test
+    void guestRsvpKeysetPageUsesWeddingIdAndGuestIndexes() throws SQLException {
+        assertThat(plan("SELECT g.id, r.status FROM guests g LEFT JOIN rsvps r ON r.guest_id = g.id "
+                + "WHERE g.wedding_id = 'default' AND g.id > 0 ORDER BY g.id LIMIT 51"))
+                .contains("idx_guests_wedding_id", "ux_rsvps_guest_id");
+    }
+
+    @Test
+    void eventScheduleUsesWeddingDateIndex() throws SQLException {
+        assertThat(plan("SELECT * FROM wedding_events WHERE wedding_id = 'default' ORDER BY event_date"))
+                .contains("idx_wedding_events_wedding_date");
+    }
+
+    private static String plan(String sql) throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN (COSTS OFF) " + sql)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // public stays on the path for extensions (pg_trgm) installed there
+    private static Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url(), user(), password());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+        }
+        return connection;
+    }
+
+    private static FluentConfiguration configure() {
+        return Flyway.configure()
+                .dataSource(url(), user(), password())
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false);
+    }
+
+    private static String url() {
+        return System.getProperty("wedding.test.postgres.url");
+    }
+
+    private static String user() {
+        return System.getProperty("wedding.test.postgres.user", "wedding_user");
+    }
+
+    private static String password() {
+        return System.getProperty("wedding.test.postgres.password", "wedding_pass");
+    }
+}
@@ -0,0 +1,118 @@
+package com.wedding.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wedding.api.intake.IntakeLog;
+import com.wedding.api.model.RSVP;
+import com.wedding.api.outbox.OutboxService;
+import com.wedding.api.repository.RSVPRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Replay of records left in the intake log by a crash between the batch commit and the checkpoint
+class RSVPWriteBehindServiceTest {
+
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    Path logDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RSVPRepository rsvpRepository = mock(RSVPRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    private RSVPWriteBehindService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        // The guarded insert inserts nothing, as for a row committed before the crash or a rejected one
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0}});
+
+        service = new RSVPWriteBehindService(meterRegistry);
+        ReflectionTestUtils.setField(service, "rsvpRepository", rsvpRepository);
+        ReflectionTestUtils.setField(service, "outboxService", outboxService);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "logDir", logDir.toString());
+        ReflectionTestUtils.setField(service, "segmentSizeBytes", SEGMENT_BYTES);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "maxPending", 50000);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+
+        writeUndrainedRecord("smith-jones", new RSVP(7L, RSVP.RSVPStatus.ATTENDING));
+    }
+
+    @Test
+    void replayedRecordAlreadyInDatabaseIsNotDeadLettered() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(true);
+
+        service.replay();
+        service.drain();
+
+        assertThat(logDir.resolve("dead-letter.jsonl")).doesNotExist();
+        assertThat(service.getPendingCount()).isZero();
+        assertThat(meterRegistry.counter("wedding.rsvp.writebehind.inserted").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("wedding.rsvp.writebehind.skipped").count()).isZero();
+        // Its outbox message was committed with the row
+        verify(outboxService, never()).record(any(), any(), any(), any());
+        service.shutdown();
+    }
+
+    @Test
+    void replayedRecordRejectedByDatabaseIsDeadLettered() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any(), any())).thenReturn(false);
+
+        service.replay();
+        service.drain();
+
+        assertThat(Files.readAllLines(logDir.resolve("dead-letter.jsonl"))).hasSize(1);
+        assertThat(service.getPendingCount()).isZero();
+        assertThat(meterRegistry.counter("wedding.rsvp.writebehind.inserted").count()).isZero();
+        assertThat(meterRegistry.counter("wedding.rsvp.writebehind.skipped").count()).isEqualTo(1.0);
+        service.shutdown();
+    }
+
+    // Same envelope submit() appends; the checkpoint is never advanced, as after a crash
+    private void writeUndrainedRecord(String weddingId, RSVP rsvp) throws Exception {
+        rsvp.setSubmittedAt(LocalDateTime.of(2026, 6, 20, 14, 30, 15, 123456000));
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("weddingId", weddingId);
+        envelope.set("rsvp", objectMapper.valueToTree(rsvp));
+        IntakeLog log = new IntakeLog(logDir, SEGMENT_BYTES, false);
+        log.open();
+        log.append(objectMapper.writeValueAsBytes(envelope));
+        log.close();
+    }
+}
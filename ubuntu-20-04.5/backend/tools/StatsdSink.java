@@ -0,0 +1,55 @@
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+// Local stand-in for the Datadog agent's DogStatsD listener. Counts datagrams, metric lines and
+// bytes so the direct and aggregated export modes can be compared; no dependencies, run as
+//
+//   java tools/StatsdSink.java [port] [seconds] [--print]
+//
+// and point the app at it with --management.statsd.metrics.export.host=localhost
+// --management.statsd.metrics.export.port=<port>.
+public class StatsdSink {
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8125;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 60;
+        boolean print = args.length > 2 && args[2].equals("--print");
+
+        long packets = 0;
+        long lines = 0;
+        long bytes = 0;
+        int largest = 0;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        try (DatagramSocket socket = new DatagramSocket(port)) {
+            socket.setSoTimeout(200);
+            byte[] buffer = new byte[65535];
+            System.out.println("Listening on udp/" + port + " for " + seconds + "s");
+            while (System.nanoTime() < deadline) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                String payload = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
+                packets++;
+                bytes += packet.getLength();
+                largest = Math.max(largest, packet.getLength());
+                for (String line : payload.split("\n")) {
+                    if (!line.isBlank()) {
+                        lines++;
+                        if (print) {
+                            System.out.println(line);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.printf("packets=%d lines=%d bytes=%d largestPacket=%d linesPerPacket=%.1f%n",
+                packets, lines, bytes, largest, packets == 0 ? 0.0 : (double) lines / packets);
+    }
+}
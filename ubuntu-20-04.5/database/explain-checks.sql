@@ -0,0 +1,35 @@
+-- Plan checks for the indexes added by backend/src/main/resources/db/migration/V2__*.sql and V4__*.sql,
+-- for reading by hand; MigrationQueryPlanTest asserts the same plans.
+-- Hibernate adds wedding_id = <current wedding> to every entity query (V4 tenancy), so the queries do too.
+-- Run against a local Postgres after the backend has migrated it:
+--   psql -U wedding_user -d wedding_db -f database/explain-checks.sql
+-- With only a handful of sample rows the planner prefers sequential scans, so plans are taken
+-- with enable_seqscan off; each comment says which index the plan is expected to use.
+
+SET enable_seqscan = off;
+
+-- RSVPRepository.findByGuestId: Index Scan using ux_rsvps_guest_id
+EXPLAIN (COSTS OFF) SELECT * FROM rsvps WHERE guest_id = 1;
+
+-- RSVPRepository.findByGuestIdIn (batch endpoint): Index Scan using ux_rsvps_guest_id
+EXPLAIN (COSTS OFF) SELECT * FROM rsvps WHERE guest_id IN (1, 2, 3);
+
+-- RSVPRepository.countByStatus: Index Only Scan / Bitmap Index Scan on idx_rsvps_wedding_status
+EXPLAIN (COSTS OFF) SELECT COUNT(*) FROM rsvps WHERE wedding_id = 'default' AND status = 'attending';
+
+-- GuestRepository.findBySearchTerm: BitmapOr over the three *_trgm GIN indexes
+EXPLAIN (COSTS OFF) SELECT * FROM guests
+WHERE LOWER(first_name) LIKE '%smi%' OR LOWER(last_name) LIKE '%smi%' OR LOWER(email) LIKE '%smi%';
+
+-- GuestRepository.findGuestsWithRsvpAfter: guests walked with idx_guests_wedding_id,
+-- rsvps joined through ux_rsvps_guest_id
+EXPLAIN (COSTS OFF) SELECT g.id, r.status FROM guests g LEFT JOIN rsvps r ON r.guest_id = g.id
+WHERE g.wedding_id = 'default' AND g.id > 0 ORDER BY g.id LIMIT 51;
+
+-- WeddingEventRepository.findAllOrderedByDate: Index Scan using idx_wedding_events_wedding_date
+EXPLAIN (COSTS OFF) SELECT * FROM wedding_events WHERE wedding_id = 'default' ORDER BY event_date;
+
+RESET enable_seqscan;
+
+-- Applied migrations
+SELECT version, description, installed_on, execution_time, success FROM flyway_schema_history ORDER BY installed_rank;
@@ -32,6 +32,23 @@ CREATE TABLE IF NOT EXISTS wedding_events (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Side effects written in the same transaction as the business row and delivered by the API's outbox relay
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox_messages (status, id);
+
 -- Insert sample data for testing
 INSERT INTO guests (first_name, last_name, email, phone, plus_one) VALUES
 ('John', 'Smith', 'john.smith@email.com', '+1-555-0101', true),